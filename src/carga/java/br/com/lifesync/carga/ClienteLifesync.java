@@ -0,0 +1,88 @@
+package br.com.lifesync.carga;
+
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+//Cliente HTTP da API usado para popular a base e gerar a carga; cada chamada devolve a resposta completa
+class ClienteLifesync {
+
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String enderecoBase;
+
+    ClienteLifesync(HttpClient http, ObjectMapper objectMapper, int porta) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.enderecoBase = "http://localhost:" + porta;
+    }
+
+    HttpResponse<String> cadastrar(String nome, String email, String senha) {
+        return enviar(requisicao("/signin", null).POST(json(Map.of("nome", nome, "email", email, "senha", senha))));
+    }
+
+    HttpResponse<String> login(String email, String senha) {
+        return enviar(requisicao("/login", null).POST(json(Map.of("email", email, "senha", senha))));
+    }
+
+    HttpResponse<String> post(String caminho, String token, Object corpo) {
+        return enviar(requisicao(caminho, token).POST(json(corpo)));
+    }
+
+    HttpResponse<String> get(String caminho, String token) {
+        return enviar(requisicao(caminho, token).GET());
+    }
+
+    HttpResponse<String> patch(String caminho, String token) {
+        return enviar(requisicao(caminho, token).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    List<CompromissoDTO> lerCompromissos(HttpResponse<String> resposta) {
+        try {
+            return objectMapper.readValue(resposta.body(), new TypeReference<>() {});
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpRequest.Builder requisicao(String caminho, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(enderecoBase + caminho))
+                .timeout(TEMPO_LIMITE)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(Object corpo) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corpo));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder builder) {
+        try {
+            return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
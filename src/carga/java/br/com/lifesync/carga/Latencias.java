@@ -0,0 +1,47 @@
+package br.com.lifesync.carga;
+
+import java.util.Arrays;
+
+//Latências (em nanossegundos) e falhas registradas para uma operação; cada cliente usa as suas próprias
+//instâncias, que são somadas ao final, para não haver disputa entre threads durante a medição
+class Latencias {
+
+    private long[] valores = new long[1024];
+    private int quantidade;
+    private long falhas;
+
+    void registrar(long nanos, boolean sucesso) {
+        if (quantidade == valores.length) {
+            valores = Arrays.copyOf(valores, quantidade * 2);
+        }
+        valores[quantidade++] = nanos;
+        if (!sucesso) {
+            falhas++;
+        }
+    }
+
+    void somar(Latencias outras) {
+        for (int i = 0; i < outras.quantidade; i++) {
+            registrar(outras.valores[i], true);
+        }
+        falhas += outras.falhas;
+    }
+
+    RelatorioCarga.Operacao resumir(String nome, double segundos) {
+        long[] ordenados = Arrays.copyOf(valores, quantidade);
+        Arrays.sort(ordenados);
+        double media = quantidade == 0 ? 0 : Arrays.stream(ordenados).average().orElse(0) / 1_000_000.0;
+        return new RelatorioCarga.Operacao(nome, quantidade, falhas, quantidade / segundos, media,
+                percentil(ordenados, 50), percentil(ordenados, 90), percentil(ordenados, 99),
+                percentil(ordenados, 99.9), quantidade == 0 ? 0 : ordenados[quantidade - 1] / 1_000_000.0);
+    }
+
+    //Percentil pelo método do valor mais próximo, em milissegundos
+    private static double percentil(long[] ordenados, double percentil) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int posicao = (int) Math.ceil(percentil / 100.0 * ordenados.length) - 1;
+        return ordenados[Math.max(0, posicao)] / 1_000_000.0;
+    }
+}
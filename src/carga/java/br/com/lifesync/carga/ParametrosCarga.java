@@ -0,0 +1,35 @@
+package br.com.lifesync.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Parâmetros do teste de carga, lidos dos argumentos no formato --nome=valor.
+//Argumentos --spring.* e --app.* são repassados à aplicação (ex.: --spring.profiles.active=virtual)
+record ParametrosCarga(int usuarios, int compromissosPorUsuario, int clientes, Duration aquecimento,
+                       Duration duracao, String relatorio, List<String> argumentosDaAplicacao) {
+
+    static ParametrosCarga de(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        List<String> argumentosDaAplicacao = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--app.")) {
+                argumentosDaAplicacao.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                valores.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+        }
+        return new ParametrosCarga(
+                Integer.parseInt(valores.getOrDefault("usuarios", "20")),
+                Integer.parseInt(valores.getOrDefault("compromissos", "200")),
+                Integer.parseInt(valores.getOrDefault("clientes", "50")),
+                Duration.ofSeconds(Long.parseLong(valores.getOrDefault("aquecimento", "10"))),
+                Duration.ofSeconds(Long.parseLong(valores.getOrDefault("duracao", "30"))),
+                valores.getOrDefault("relatorio", "target/carga-resultado.json"),
+                argumentosDaAplicacao);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.lifesync.carga;
+
+import java.util.List;
+
+//Resultado do teste de carga, gravado em JSON; tempos em milissegundos e vazão em requisições por segundo
+record RelatorioCarga(Parametros parametros, double duracaoSegundos, long requisicoes, long falhas,
+                      double requisicoesPorSegundo, List<Operacao> operacoes) {
+
+    record Parametros(int usuarios, int compromissosPorUsuario, int clientes, long aquecimentoSegundos,
+                      long duracaoSegundos, List<String> argumentosDaAplicacao, String versaoJava) {
+    }
+
+    record Operacao(String nome, long requisicoes, long falhas, double requisicoesPorSegundo, double mediaMs,
+                    double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maximoMs) {
+    }
+}
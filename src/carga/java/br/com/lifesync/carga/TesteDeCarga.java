@@ -0,0 +1,235 @@
+package br.com.lifesync.carga;
+
+import br.com.lifesync.LifesyncApplication;
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.evento.CadastroEventoDTO;
+import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Teste de carga de ponta a ponta: sobe a aplicação com um banco H2 em memória (modo MySQL, com as mesmas
+//migrações do Flyway), cadastra os usuários e seus compromissos pela API e dispara, a partir de vários clientes
+//simultâneos, uma mistura de login, leituras da agenda e alterações. Ao final grava a vazão e os percentis
+//de latência de cada operação em JSON.
+//
+//Uso: mvn -Pcarga test-compile exec:exec -Dcarga.args="--usuarios=20 --compromissos=200 --clientes=50 --duracao=30"
+public class TesteDeCarga {
+
+    private static final String SENHA = "senha123";
+    private static final int TAMANHO_DO_LOTE = 500;
+
+    //Operações disparadas pelos clientes e seus pesos relativos
+    private static final Map<String, Integer> MISTURA = Map.of(
+            "GET /compromissos", 50,
+            "GET /compromissos/pagina", 15,
+            "GET /tarefas/{id}", 10,
+            "POST /tarefas", 10,
+            "PATCH /tarefas/{id}/concluir", 10,
+            "POST /login", 5);
+
+    private static final List<String> ARGUMENTOS_PADRAO = List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            // Mesmo dialeto da produção, para que as migrações e a validação do esquema sejam as mesmas
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+            // Todos os clientes usam o mesmo IP e repetem o login dos mesmos usuários, o que o limitador recusaria
+            "--app.security.login.tentativas-por-email=1000000",
+            "--app.security.login.tentativas-por-ip=1000000",
+            "--logging.level.root=WARN");
+
+    private record Usuario(String email, String token, List<Long> tarefas) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParametrosCarga parametros = ParametrosCarga.de(args);
+        // Argumentos informados substituem os padrões de mesmo nome (o Spring juntaria os dois valores)
+        List<String> argumentosDaAplicacao = new ArrayList<>(parametros.argumentosDaAplicacao());
+        ARGUMENTOS_PADRAO.stream()
+                .filter(padrao -> argumentosDaAplicacao.stream().noneMatch(arg -> nome(arg).equals(nome(padrao))))
+                .forEach(argumentosDaAplicacao::add);
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(LifesyncApplication.class)
+                .run(argumentosDaAplicacao.toArray(String[]::new))) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            ObjectMapper objectMapper = contexto.getBean(ObjectMapper.class);
+            ClienteLifesync cliente = new ClienteLifesync(HttpClient.newHttpClient(), objectMapper, porta);
+
+            System.out.printf("Aplicação iniciada na porta %d; populando %d usuários com %d compromissos cada%n",
+                    porta, parametros.usuarios(), parametros.compromissosPorUsuario());
+            List<Usuario> usuarios = popular(cliente, parametros);
+
+            System.out.printf("Executando %d clientes: %ds de aquecimento e %ds de medição%n", parametros.clientes(),
+                    parametros.aquecimento().toSeconds(), parametros.duracao().toSeconds());
+            RelatorioCarga relatorio = executar(cliente, usuarios, parametros);
+
+            File arquivo = new File(parametros.relatorio());
+            if (arquivo.getParentFile() != null) {
+                arquivo.getParentFile().mkdirs();
+            }
+            objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo, relatorio);
+            imprimir(relatorio);
+            System.out.println("Relatório gravado em " + arquivo.getAbsolutePath());
+        }
+    }
+
+    private static String nome(String argumento) {
+        int igual = argumento.indexOf('=');
+        return igual < 0 ? argumento : argumento.substring(0, igual);
+    }
+
+    //Cadastra os usuários e seus compromissos pela própria API, usando os endpoints de cadastro em lote
+    private static List<Usuario> popular(ClienteLifesync cliente, ParametrosCarga parametros) {
+        List<Usuario> usuarios = new ArrayList<>();
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int u = 0; u < parametros.usuarios(); u++) {
+            String email = "carga" + u + "@email.com";
+            exigirSucesso(cliente.cadastrar("Usuário " + u, email, SENHA));
+            String token = exigirSucesso(cliente.login(email, SENHA)).body();
+
+            List<CadastroTarefaDTO> tarefas = new ArrayList<>();
+            List<CadastroEventoDTO> eventos = new ArrayList<>();
+            for (int i = 0; i < parametros.compromissosPorUsuario(); i++) {
+                String data = LocalDate.of(2025, 1, 1).plusDays(aleatorio.nextInt(365)).toString();
+                String hora = LocalTime.of(aleatorio.nextInt(24), aleatorio.nextInt(4) * 15).toString();
+                if (i % 2 == 0) {
+                    tarefas.add(new CadastroTarefaDTO("Tarefa " + i, data, hora));
+                } else {
+                    eventos.add(new CadastroEventoDTO("Evento " + i, data, hora, "Local " + i));
+                }
+            }
+            for (int i = 0; i < tarefas.size(); i += TAMANHO_DO_LOTE) {
+                exigirSucesso(cliente.post("/tarefas/lote", token, tarefas.subList(i, Math.min(tarefas.size(), i + TAMANHO_DO_LOTE))));
+            }
+            for (int i = 0; i < eventos.size(); i += TAMANHO_DO_LOTE) {
+                exigirSucesso(cliente.post("/eventos/lote", token, eventos.subList(i, Math.min(eventos.size(), i + TAMANHO_DO_LOTE))));
+            }
+
+            List<Long> idsDasTarefas = cliente.lerCompromissos(exigirSucesso(cliente.get("/compromissos", token))).stream()
+                    .filter(compromisso -> compromisso.tipo().equals("tarefa"))
+                    .map(CompromissoDTO::id)
+                    .toList();
+            usuarios.add(new Usuario(email, token, idsDasTarefas));
+        }
+        return usuarios;
+    }
+
+    private static RelatorioCarga executar(ClienteLifesync cliente, List<Usuario> usuarios, ParametrosCarga parametros)
+            throws Exception {
+        List<String> sorteio = new ArrayList<>();
+        MISTURA.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                sorteio.add(operacao);
+            }
+        });
+
+        long inicioDaMedicao = System.nanoTime() + parametros.aquecimento().toNanos();
+        long fimDaMedicao = inicioDaMedicao + parametros.duracao().toNanos();
+        AtomicBoolean parar = new AtomicBoolean();
+
+        ExecutorService clientes = Executors.newFixedThreadPool(parametros.clientes());
+        List<Future<Map<String, Latencias>>> resultados = new ArrayList<>();
+        for (int c = 0; c < parametros.clientes(); c++) {
+            Usuario usuario = usuarios.get(c % usuarios.size());
+            resultados.add(clientes.submit(() -> {
+                Map<String, Latencias> latencias = new HashMap<>();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (!parar.get()) {
+                    String operacao = sorteio.get(aleatorio.nextInt(sorteio.size()));
+                    long inicio = System.nanoTime();
+                    boolean sucesso;
+                    try {
+                        sucesso = executar(cliente, usuario, operacao, aleatorio).statusCode() < 400;
+                    } catch (RuntimeException ex) {
+                        sucesso = false;
+                    }
+                    long fim = System.nanoTime();
+                    if (inicio >= inicioDaMedicao && fim <= fimDaMedicao) {
+                        latencias.computeIfAbsent(operacao, nome -> new Latencias()).registrar(fim - inicio, sucesso);
+                    }
+                }
+                return latencias;
+            }));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(fimDaMedicao - System.nanoTime());
+        parar.set(true);
+        clientes.shutdown();
+
+        Map<String, Latencias> total = new TreeMap<>();
+        for (Future<Map<String, Latencias>> resultado : resultados) {
+            resultado.get().forEach((operacao, latencias) ->
+                    total.computeIfAbsent(operacao, nome -> new Latencias()).somar(latencias));
+        }
+        Latencias geral = new Latencias();
+        total.values().forEach(geral::somar);
+
+        double segundos = parametros.duracao().toNanos() / 1_000_000_000.0;
+        List<RelatorioCarga.Operacao> operacoes = new ArrayList<>();
+        operacoes.add(geral.resumir("TOTAL", segundos));
+        total.forEach((operacao, latencias) -> operacoes.add(latencias.resumir(operacao, segundos)));
+
+        RelatorioCarga.Operacao resumo = operacoes.get(0);
+        return new RelatorioCarga(
+                new RelatorioCarga.Parametros(parametros.usuarios(), parametros.compromissosPorUsuario(),
+                        parametros.clientes(), parametros.aquecimento().toSeconds(), parametros.duracao().toSeconds(),
+                        parametros.argumentosDaAplicacao(), System.getProperty("java.version")),
+                segundos, resumo.requisicoes(), resumo.falhas(), resumo.requisicoesPorSegundo(), operacoes);
+    }
+
+    private static HttpResponse<String> executar(ClienteLifesync cliente, Usuario usuario, String operacao,
+                                                 ThreadLocalRandom aleatorio) {
+        Long tarefa = usuario.tarefas().isEmpty() ? 0L : usuario.tarefas().get(aleatorio.nextInt(usuario.tarefas().size()));
+        return switch (operacao) {
+            case "GET /compromissos" -> cliente.get("/compromissos", usuario.token());
+            case "GET /compromissos/pagina" -> cliente.get("/compromissos/pagina?tamanho=50", usuario.token());
+            case "GET /tarefas/{id}" -> cliente.get("/tarefas/" + tarefa, usuario.token());
+            case "POST /tarefas" -> cliente.post("/tarefas", usuario.token(),
+                    new CadastroTarefaDTO("Tarefa de carga", "2025-06-01", "12:00"));
+            case "PATCH /tarefas/{id}/concluir" -> cliente.patch("/tarefas/" + tarefa + "/concluir", usuario.token());
+            case "POST /login" -> cliente.login(usuario.email(), SENHA);
+            default -> throw new IllegalArgumentException("Operação desconhecida: " + operacao);
+        };
+    }
+
+    private static HttpResponse<String> exigirSucesso(HttpResponse<String> resposta) {
+        if (resposta.statusCode() >= 400) {
+            throw new IllegalStateException("Falha ao popular a base: " + resposta.uri() + " respondeu "
+                    + resposta.statusCode() + " " + resposta.body());
+        }
+        return resposta;
+    }
+
+    private static void imprimir(RelatorioCarga relatorio) {
+        System.out.printf("%n%-30s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "Operação", "Requisições", "Falhas", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+        for (RelatorioCarga.Operacao operacao : relatorio.operacoes()) {
+            System.out.printf("%-30s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", operacao.nome(),
+                    operacao.requisicoes(), operacao.falhas(), operacao.requisicoesPorSegundo(), operacao.p50Ms(),
+                    operacao.p90Ms(), operacao.p99Ms(), operacao.p999Ms(), operacao.maximoMs());
+        }
+    }
+}
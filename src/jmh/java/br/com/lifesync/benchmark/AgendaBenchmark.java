@@ -0,0 +1,114 @@
+package br.com.lifesync.benchmark;
+
+import br.com.lifesync.domain.compromisso.Compromisso;
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.compromisso.CompromissoService;
+import br.com.lifesync.domain.compromisso.MesclaOrdenada;
+import br.com.lifesync.domain.evento.Evento;
+import br.com.lifesync.domain.tarefa.Tarefa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Compara a montagem da agenda unificada: ordenação em memória das entidades das duas tabelas seguida
+// da conversão para DTO (implementação anterior) e mescla dos DTOs que o banco já entrega ordenados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaBenchmark {
+
+    private static final int TAMANHO_DA_PRIMEIRA_PAGINA = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    private int quantidade;
+
+    // Entidades na ordem de inserção, como eram devolvidas pelas consultas sem ORDER BY
+    private List<Tarefa> tarefas;
+    private List<Evento> eventos;
+
+    // DTOs na ordem da agenda, como são devolvidos pelas consultas atuais
+    private List<CompromissoDTO> tarefasOrdenadas;
+    private List<CompromissoDTO> eventosOrdenados;
+
+    @Setup
+    public void setUp() {
+        Random aleatorio = new Random(42);
+        tarefas = new ArrayList<>(quantidade / 2);
+        eventos = new ArrayList<>(quantidade - quantidade / 2);
+        for (long id = 1; id <= quantidade; id++) {
+            LocalDate data = LocalDate.of(2025, 1, 1).plusDays(aleatorio.nextInt(365));
+            LocalTime hora = LocalTime.of(aleatorio.nextInt(24), aleatorio.nextInt(4) * 15);
+            if (id % 2 == 0) {
+                Tarefa tarefa = new Tarefa();
+                tarefa.setId(id);
+                tarefa.setTitulo("Tarefa " + id);
+                tarefa.setData(data);
+                tarefa.setHora(hora);
+                tarefas.add(tarefa);
+            } else {
+                Evento evento = new Evento();
+                evento.setId(id);
+                evento.setTitulo("Evento " + id);
+                evento.setData(data);
+                evento.setHora(hora);
+                eventos.add(evento);
+            }
+        }
+        tarefasOrdenadas = tarefas.stream().map(AgendaBenchmark::converterParaDTO)
+                .sorted(CompromissoService.ORDEM_DA_AGENDA).toList();
+        eventosOrdenados = eventos.stream().map(AgendaBenchmark::converterParaDTO)
+                .sorted(CompromissoService.ORDEM_DA_AGENDA).toList();
+    }
+
+    @Benchmark
+    public List<CompromissoDTO> ordenarEntidadesEmMemoria() {
+        List<Compromisso> compromissos = new ArrayList<>(tarefas.size() + eventos.size());
+        compromissos.addAll(tarefas);
+        compromissos.addAll(eventos);
+        return compromissos.stream()
+                .sorted(Comparator.comparing(Compromisso::getData).thenComparing(Compromisso::getHora))
+                .map(AgendaBenchmark::converterParaDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<CompromissoDTO> mesclarDTOsOrdenados() {
+        return MesclaOrdenada.mesclar(CompromissoService.ORDEM_DA_AGENDA,
+                tarefasOrdenadas.stream(), eventosOrdenados.stream()).toList();
+    }
+
+    // A mescla é preguiçosa: a primeira página custa o mesmo para qualquer tamanho de agenda
+    @Benchmark
+    public List<CompromissoDTO> mesclarPrimeiraPagina() {
+        try (Stream<CompromissoDTO> agenda = MesclaOrdenada.mesclar(CompromissoService.ORDEM_DA_AGENDA,
+                tarefasOrdenadas.stream(), eventosOrdenados.stream())) {
+            return agenda.limit(TAMANHO_DA_PRIMEIRA_PAGINA).toList();
+        }
+    }
+
+    private static CompromissoDTO converterParaDTO(Compromisso compromisso) {
+        String tipo = (compromisso instanceof Tarefa) ? "tarefa" : "evento";
+        return new CompromissoDTO(compromisso.getId(), compromisso.getTitulo(),
+                compromisso.getData().toString(), compromisso.getHora().toString(), tipo);
+    }
+}
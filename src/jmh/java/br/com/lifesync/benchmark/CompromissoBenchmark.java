@@ -0,0 +1,79 @@
+package br.com.lifesync.benchmark;
+
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.evento.CadastroEventoDTO;
+import br.com.lifesync.domain.evento.Evento;
+import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
+import br.com.lifesync.domain.tarefa.Tarefa;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mede a criação de tarefas e eventos a partir dos DTOs de cadastro (que interpretam data e hora
+// com LocalDate.parse/LocalTime.parse) e a serialização em JSON dos compromissos devolvidos pela agenda
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompromissoBenchmark {
+
+    private static final int TAMANHO_DA_AGENDA = 100;
+
+    private CadastroTarefaDTO cadastroTarefa;
+    private CadastroEventoDTO cadastroEvento;
+    private ObjectMapper objectMapper;
+    private CompromissoDTO compromisso;
+    private List<CompromissoDTO> agenda;
+
+    @Setup
+    public void setUp() {
+        cadastroTarefa = new CadastroTarefaDTO("Tarefa Benchmark", "2025-01-12", "14:00");
+        cadastroEvento = new CadastroEventoDTO("Evento Benchmark", "2025-01-12", "09:30", "Local Benchmark");
+        // Mesma configuração de Jackson que o Spring Boot aplica ao ObjectMapper da aplicação
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        compromisso = new CompromissoDTO(1L, "Tarefa Benchmark", LocalDate.of(2025, 1, 12), LocalTime.of(14, 0), "tarefa");
+        agenda = new ArrayList<>(TAMANHO_DA_AGENDA);
+        for (long id = 1; id <= TAMANHO_DA_AGENDA; id++) {
+            agenda.add(new CompromissoDTO(id, "Compromisso " + id, LocalDate.of(2025, 1, 1).plusDays(id),
+                    LocalTime.of((int) (id % 24), 0), id % 2 == 0 ? "tarefa" : "evento"));
+        }
+    }
+
+    @Benchmark
+    public Tarefa criarTarefa() {
+        return new Tarefa(cadastroTarefa);
+    }
+
+    @Benchmark
+    public Evento criarEvento() {
+        return new Evento(cadastroEvento);
+    }
+
+    @Benchmark
+    public byte[] serializarCompromisso() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compromisso);
+    }
+
+    @Benchmark
+    public byte[] serializarAgenda() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(agenda);
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.lifesync.benchmark;
+
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.infra.security.TokenCache;
+import br.com.lifesync.infra.security.TokenService;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.TimeUnit;
+
+// Compara o custo por requisição da verificação de tokens: algoritmo e verificador recriados
+// a cada chamada (implementação anterior), verificador construído uma única vez e cache de tokens verificados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String ISSUER = "API ADOPET STORE";
+    private static final String SECRET = "12345678";
+
+    private TokenService tokenService;
+    private TokenService tokenServiceComCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(SECRET, "principal", new TokenCache(0, DataSize.ofBytes(0)));
+        tokenServiceComCache = new TokenService(SECRET, "principal", new TokenCache(10_000, DataSize.ofMegabytes(4)));
+        usuario = new Usuario("Usuario Benchmark", "benchmark@email.com", "senha", Role.USUARIO);
+        token = tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String verificarRecriandoVerificador() {
+        var algoritmo = Algorithm.HMAC256(SECRET);
+        return JWT.require(algoritmo)
+                .withIssuer(ISSUER)
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public String verificarComVerificadorReutilizado() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public String verificarComCache() {
+        return tokenServiceComCache.getSubject(token);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarToken(usuario);
+    }
+}
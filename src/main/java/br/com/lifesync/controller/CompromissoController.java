@@ -1,13 +1,31 @@
 package br.com.lifesync.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.lifesync.domain.compromisso.CompromissoDTO;
 import br.com.lifesync.domain.compromisso.CompromissoService;
+import br.com.lifesync.domain.compromisso.PaginaCompromissosDTO;
+import br.com.lifesync.domain.compromisso.SincronizacaoDTO;
+import br.com.lifesync.domain.compromisso.VersaoDaAgenda;
+import br.com.lifesync.domain.usuario.UsuarioService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,9 +34,74 @@ public class CompromissoController {
     @Autowired
     private CompromissoService compromissoService;
 
+    @Autowired
+    private VersaoDaAgenda versaoDaAgenda;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Endpoint para listar a agenda completa. O ETag acompanha a versão da agenda do usuário: com If-None-Match
+    // igual à versão atual, responde 304 sem consultar tarefas e eventos
     @GetMapping("compromissos")
-    public ResponseEntity<List<CompromissoDTO>>  listarCompromissos() {
+    public ResponseEntity<List<CompromissoDTO>>  listarCompromissos(WebRequest request) {
+        String etag = versaoDaAgenda.etagDoUsuarioLogado();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<CompromissoDTO> compromissosDTO = compromissoService.listarCompromissosOrdenados();
-        return ResponseEntity.ok(compromissosDTO);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(compromissosDTO);
+    }
+
+    // Endpoint para transmitir a agenda completa em NDJSON (um compromisso por linha), escrevendo cada compromisso
+    // na resposta assim que é lido do banco; a memória por requisição não cresce com o tamanho da agenda.
+    // A escrita ocorre fora da thread da requisição, por isso o usuário é resolvido antes
+    @GetMapping(value = "compromissos/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitirCompromissos(WebRequest request) {
+        String etag = versaoDaAgenda.etagDoUsuarioLogado();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Long usuarioId = usuarioService.obterUsuarioLogado().getId();
+        StreamingResponseBody corpo = saida -> {
+            // Sem flush a cada compromisso: a resposta é enviada em blocos conforme os buffers enchem
+            ObjectWriter escritor = objectMapper.writerFor(CompromissoDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator gerador = objectMapper.createGenerator(saida)) {
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).setRootValueSeparator(null);
+                compromissoService.percorrerAgenda(usuarioId, compromisso -> escreverLinha(escritor, gerador, compromisso));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    private static void escreverLinha(ObjectWriter escritor, JsonGenerator gerador, CompromissoDTO compromisso) {
+        try {
+            escritor.writeValue(gerador, compromisso);
+            gerador.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Endpoint para listar a agenda em páginas, usando o cursor devolvido pela página anterior
+    @GetMapping("compromissos/pagina")
+    public ResponseEntity<PaginaCompromissosDTO> listarPaginaDeCompromissos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(compromissoService.listarPaginaDeCompromissos(de, ate, cursor, tamanho));
+    }
+
+    // Endpoint para a sincronização incremental da agenda: sem o parâmetro desde, devolve todos os compromissos ativos;
+    // com o token devolvido pela sincronização anterior, apenas o que mudou desde então (inclusive exclusões)
+    @GetMapping("compromissos/sync")
+    public ResponseEntity<SincronizacaoDTO> sincronizarCompromissos(@RequestParam(required = false) String desde) {
+        return ResponseEntity.ok(compromissoService.sincronizar(desde));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package br.com.lifesync.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ETags de tarefas e eventos, formados pela versão do registro. São ETags fortes porque o If-Match,
+// usado nas edições condicionais, só aceita comparação forte
+final class EtagDeVersao {
+
+    private EtagDeVersao() {
+    }
+
+    static String de(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    // Versões aceitas pelo cabeçalho If-Match: null quando ele não foi enviado ou é "*" (qualquer versão).
+    // ETags fracos ou que não são versões nunca correspondem e são descartados, o que pode resultar em lista vazia
+    static List<Long> versoesDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versoes = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                try {
+                    versoes.add(Long.valueOf(valor.substring(1, valor.length() - 1)));
+                } catch (NumberFormatException ex) {
+                    // Não é uma versão emitida por esta API: não corresponde a nenhum registro
+                }
+            }
+        }
+        return versoes;
+    }
+}
@@ -1,15 +1,24 @@
 package br.com.lifesync.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import br.com.lifesync.domain.evento.CadastroEventoDTO;
 import br.com.lifesync.domain.evento.EdicaoEventoDTO;
 import br.com.lifesync.domain.evento.Evento;
 import br.com.lifesync.domain.evento.EventoService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 // Controlador REST responsável por manipular requisições relacionadas aos eventos
@@ -27,24 +36,61 @@ public class EventoController {
         return ResponseEntity.created(URI.create("/eventos")).build();
     }
 
-    // Endpoint para obter os detalhes de um evento pelo seu ID
+    // Endpoint para adicionar vários eventos de uma vez, como na sincronização de itens criados offline
+    @PostMapping("/lote")
+    public ResponseEntity<Void> adicionarEventos(@RequestBody @NotEmpty @Size(max = EventoService.TAMANHO_MAXIMO_LOTE) List<@Valid CadastroEventoDTO> dtos) {
+        eventoService.adicionarEventos(dtos);
+        return ResponseEntity.created(URI.create("/eventos")).build();
+    }
+
+    // Endpoint para obter os detalhes de um evento do usuário logado pelo seu ID. O ETag é a versão do evento:
+    // com If-None-Match igual a ela responde 304 sem corpo, e é o valor esperado no If-Match das edições
     @GetMapping("/{id}")
-    public ResponseEntity<Evento> obterEvento(@PathVariable Long id) {
+    public ResponseEntity<Evento> obterEvento(@PathVariable Long id, WebRequest request) {
         Optional<Evento> optionalEvento = eventoService.obterEvento(id);
-        return optionalEvento.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        if (optionalEvento.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Evento evento = optionalEvento.get();
+        String etag = EtagDeVersao.de(evento.getVersao());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(evento);
     }
 
-    // Endpoint para editar um evento existente pelo seu ID
+    // Endpoint para editar um evento existente pelo seu ID. Com If-Match (o ETag obtido na leitura), a edição só é
+    // aplicada se o evento não mudou desde então; caso contrário responde 412, sem bloquear a linha
     @PutMapping("/{id}")
-    public ResponseEntity<Void> editarEvento(@PathVariable Long id, @RequestBody @Valid EdicaoEventoDTO dto) {
-        eventoService.editarEvento(id, dto);
+    public ResponseEntity<Void> editarEvento(@PathVariable Long id, @RequestBody @Valid EdicaoEventoDTO dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> versoes = EtagDeVersao.versoesDoIfMatch(ifMatch);
+        if (!eventoService.editarEvento(id, dto, versoes)) {
+            return ResponseEntity.notFound().build();
+        }
+        // Com uma única versão esperada, a nova versão é conhecida sem reler o evento
+        if (versoes != null && versoes.size() == 1) {
+            return ResponseEntity.noContent().eTag(EtagDeVersao.de(versoes.get(0) + 1)).build();
+        }
         return ResponseEntity.noContent().build();
     }
 
     // Endpoint para excluir um evento existente pelo seu ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirEvento(@PathVariable Long id) {
-        eventoService.excluirEvento(id);
+        if (!eventoService.excluirEvento(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Endpoint para cancelar apenas a ocorrência de um evento recorrente na data informada (yyyy-MM-dd)
+    @DeleteMapping("/{id}/ocorrencias/{data}")
+    public ResponseEntity<Void> cancelarOcorrencia(@PathVariable Long id,
+                                                   @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        if (!eventoService.cancelarOcorrencia(id, data)) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
 }
@@ -5,17 +5,27 @@ import br.com.lifesync.domain.usuario.LoginDTO;
 import br.com.lifesync.domain.usuario.Role;
 import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
+import br.com.lifesync.infra.metricas.ContadorDeConsultas;
+import br.com.lifesync.infra.security.HashDeSenhas;
+import br.com.lifesync.infra.security.LimitadorDeTentativas;
 import br.com.lifesync.infra.security.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 //Controlador REST responsável por manipular requisições relacionadas ao login
 @RestController
 public class LoginController {
@@ -32,9 +42,29 @@ public class LoginController {
     @Autowired
     private UsuarioService service;
 
-    //Endpoint para efetuar o login de um usuário
+    //Injeção de dependência do serviço de criptografia de senhas
+    @Autowired
+    private HashDeSenhas hashDeSenhas;
+
+    //Injeção de dependência do limitador de tentativas de login
+    @Autowired
+    private LimitadorDeTentativas limitador;
+
+    //Injeção de dependência do executor de tarefas do Spring, que grava o usuário depois da criptografia
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor executor;
+
+    //Endpoint para efetuar o login de um usuário. Tentativas em excesso para o mesmo email ou IP são recusadas
+    //com 429 antes da verificação da senha
     @PostMapping("login")
-    public ResponseEntity<String> efetuarLogin(@RequestBody @Valid LoginDTO dto) {
+    public ResponseEntity<String> efetuarLogin(@RequestBody @Valid LoginDTO dto, HttpServletRequest request) {
+        if (!limitador.permitir(dto.email(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(limitador.segundosParaNovaTentativa()))
+                    .build();
+        }
+
         var authenticationToken = new UsernamePasswordAuthenticationToken(dto.email(), dto.senha());
         var authentication = manager.authenticate(authenticationToken);
 
@@ -43,18 +73,22 @@ public class LoginController {
         return ResponseEntity.ok(tokenJWT);
     }
 
-    //Endpoint para registrar um novo usuário
+    //Endpoint para registrar um novo usuário. A senha é criptografada no pool de HashDeSenhas e a thread da
+    //requisição é liberada enquanto isso; se o pool estiver sobrecarregado, a resposta é 503. O usuário é gravado
+    //no executor de tarefas do Spring, para que as threads de HashDeSenhas não fiquem esperando o banco; os comandos
+    //dessa etapa entram na contagem de consultas da requisição.
+    //Um email já cadastrado resulta em 409, inclusive em cadastros simultâneos, barrados pela restrição única do banco
     @PostMapping("signin")
-    public ResponseEntity<Void> register(@RequestBody @Valid CadastroUsuarioDTO dados){
-        if(service.loadUserByUsername(dados.email()) != null) return ResponseEntity.badRequest().build();
-
-        String senhaCriptografada = new BCryptPasswordEncoder().encode(dados.senha());
+    public CompletableFuture<ResponseEntity<Void>> register(@RequestBody @Valid CadastroUsuarioDTO dados){
+        if(service.existeUsuarioComEmail(dados.email())) return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
 
-        Usuario usuario = new Usuario(dados.nome(), dados.email(), senhaCriptografada, Role.USUARIO);
+        return hashDeSenhas.criptografar(dados.senha()).thenApplyAsync(senhaCriptografada -> {
+            Usuario usuario = new Usuario(dados.nome(), dados.email(), senhaCriptografada, Role.USUARIO);
 
-        service.salvarUsuario(usuario);
+            service.salvarUsuario(usuario);
 
-        return ResponseEntity.ok().build();
+            return ResponseEntity.ok().build();
+        }, ContadorDeConsultas.propagar(executor));
     }
 }
 
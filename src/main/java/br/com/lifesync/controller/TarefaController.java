@@ -1,15 +1,24 @@
 package br.com.lifesync.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
 import br.com.lifesync.domain.tarefa.EdicaoTarefaDTO;
 import br.com.lifesync.domain.tarefa.Tarefa;
 import br.com.lifesync.domain.tarefa.TarefaService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 // Controlador REST responsável por manipular requisições relacionadas às tarefas
@@ -28,31 +37,70 @@ public class TarefaController {
         return ResponseEntity.created(URI.create("/tarefas")).build();
     }
 
-    // Endpoint para obter os detalhes de uma tarefa pelo seu ID
+    // Endpoint para adicionar várias tarefas de uma vez, como na sincronização de itens criados offline
+    @PostMapping("/lote")
+    public ResponseEntity<Void> adicionarTarefas(@RequestBody @NotEmpty @Size(max = TarefaService.TAMANHO_MAXIMO_LOTE) List<@Valid CadastroTarefaDTO> dtos) {
+        tarefaService.adicionarTarefas(dtos);
+        return ResponseEntity.created(URI.create("/tarefas")).build();
+    }
+
+    // Endpoint para obter os detalhes de uma tarefa do usuário logado pelo seu ID. O ETag é a versão da tarefa:
+    // com If-None-Match igual a ela responde 304 sem corpo, e é o valor esperado no If-Match das edições
     @GetMapping("/{id}")
-    public ResponseEntity<Tarefa> obterTarefa(@PathVariable Long id) {
+    public ResponseEntity<Tarefa> obterTarefa(@PathVariable Long id, WebRequest request) {
         Optional<Tarefa> optionalTarefa = tarefaService.obterTarefa(id);
-        return optionalTarefa.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        if (optionalTarefa.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Tarefa tarefa = optionalTarefa.get();
+        String etag = EtagDeVersao.de(tarefa.getVersao());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(tarefa);
     }
 
-    // Endpoint para editar uma tarefa existente pelo seu ID
+    // Endpoint para editar uma tarefa existente pelo seu ID. Com If-Match (o ETag obtido na leitura), a edição só é
+    // aplicada se a tarefa não mudou desde então; caso contrário responde 412, sem bloquear a linha
     @PutMapping("/{id}")
-    public ResponseEntity<Void> editarTarefa(@PathVariable Long id, @Valid @RequestBody EdicaoTarefaDTO dto) {
-        tarefaService.editarTarefa(id, dto);
+    public ResponseEntity<Void> editarTarefa(@PathVariable Long id, @Valid @RequestBody EdicaoTarefaDTO dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> versoes = EtagDeVersao.versoesDoIfMatch(ifMatch);
+        if (!tarefaService.editarTarefa(id, dto, versoes)) {
+            return ResponseEntity.notFound().build();
+        }
+        // Com uma única versão esperada, a nova versão é conhecida sem reler a tarefa
+        if (versoes != null && versoes.size() == 1) {
+            return ResponseEntity.noContent().eTag(EtagDeVersao.de(versoes.get(0) + 1)).build();
+        }
         return ResponseEntity.noContent().build();
     }
 
     // Endpoint para excluir uma tarefa existente pelo seu ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirTarefa(@PathVariable Long id) {
-        tarefaService.excluirTarefa(id);
+        if (!tarefaService.excluirTarefa(id)) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
 
     // Endpoint para marcar uma tarefa como concluída pelo seu ID
     @PatchMapping("/{id}/concluir")
     public ResponseEntity<Void> marcarTarefaComoConcluida(@PathVariable Long id) {
-        tarefaService.marcarTarefaComoConcluida(id);
+        if (!tarefaService.marcarTarefaComoConcluida(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Endpoint para cancelar apenas a ocorrência de uma tarefa recorrente na data informada (yyyy-MM-dd)
+    @DeleteMapping("/{id}/ocorrencias/{data}")
+    public ResponseEntity<Void> cancelarOcorrencia(@PathVariable Long id,
+                                                   @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        if (!tarefaService.cancelarOcorrencia(id, data)) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,9 @@
+package br.com.lifesync.domain;
+
+//Exceção lançada quando os dados de uma requisição violam uma regra de negócio
+public class ValidacaoException extends RuntimeException {
+
+    public ValidacaoException(String mensagem) {
+        super(mensagem);
+    }
+}
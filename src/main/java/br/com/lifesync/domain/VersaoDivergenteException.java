@@ -0,0 +1,10 @@
+package br.com.lifesync.domain;
+
+//Exceção lançada quando uma alteração condicional informa uma versão que não é mais a atual do registro,
+//ou seja, ele foi alterado por outra requisição depois de lido pelo cliente
+public class VersaoDivergenteException extends RuntimeException {
+
+    public VersaoDivergenteException() {
+        super("O registro foi alterado desde a versão informada");
+    }
+}
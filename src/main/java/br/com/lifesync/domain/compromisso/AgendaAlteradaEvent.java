@@ -0,0 +1,5 @@
+package br.com.lifesync.domain.compromisso;
+
+// Evento publicado pelos serviços de tarefas e eventos sempre que a agenda de um usuário é alterada
+public record AgendaAlteradaEvent(Long usuarioId) {
+}
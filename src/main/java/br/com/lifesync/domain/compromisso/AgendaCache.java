@@ -0,0 +1,90 @@
+package br.com.lifesync.domain.compromisso;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Cache em memória da agenda ordenada de cada usuário, indexado pelo id do usuário.
+// Cada entrada guarda a versão da agenda (VersaoDaAgenda) lida antes da consulta e só é usada enquanto essa versão
+// for a atual; assim, uma leitura concorrente a uma alteração nunca deixa no cache dados anteriores a ela. Como a
+// versão fica no banco, alterações feitas por outras instâncias da aplicação também tornam a entrada inválida.
+// Guarda também o dia em que a agenda foi calculada, pois as ocorrências das séries dependem dele: na virada do dia,
+// a entrada deixa de ser usada.
+// O tamanho é medido em compromissos, e não em agendas, para que poucos usuários com agendas grandes não ocupem a memória toda.
+@Component
+public class AgendaCache implements MeterBinder {
+
+    private record Entrada(long versao, LocalDate dia, List<CompromissoDTO> compromissos) {
+
+        // Indica se a entrada é mais recente que a outra: calculada em um dia posterior ou, no mesmo dia, em versão posterior
+        private boolean maisRecenteQue(Entrada outra) {
+            return dia.isAfter(outra.dia) || (dia.equals(outra.dia) && versao > outra.versao);
+        }
+    }
+
+    // Acertos e falhas são contados aqui, porque uma entrada de versão antiga presente no cache é uma falha
+    private final ConcurrentStatsCounter estatisticas = new ConcurrentStatsCounter();
+
+    private final Cache<Long, Entrada> cache;
+
+    public AgendaCache(@Value("${app.cache.agenda.ttl:10m}") Duration ttl,
+                       @Value("${app.cache.agenda.compromissos-maximos:1000000}") long compromissosMaximos) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(compromissosMaximos)
+                .weigher((Long usuarioId, Entrada entrada) -> entrada.compromissos().size() + 1)
+                .recordStats(() -> estatisticas)
+                .build();
+    }
+
+    // Método para buscar a agenda do usuário na versão e no dia informados, carregando-a com o fornecedor em caso
+    // de falha. A lista carregada deve ser imutável, pois é compartilhada entre as requisições. Entre leituras
+    // concorrentes prevalece a mais recente
+    public List<CompromissoDTO> buscar(Long usuarioId, long versao, LocalDate dia, Supplier<List<CompromissoDTO>> carregador) {
+        Entrada entrada = cache.asMap().get(usuarioId);
+        if (entrada != null && entrada.versao() >= versao && entrada.dia().equals(dia)) {
+            estatisticas.recordHits(1);
+            return entrada.compromissos();
+        }
+        estatisticas.recordMisses(1);
+        List<CompromissoDTO> compromissos = carregador.get();
+        cache.asMap().merge(usuarioId, new Entrada(versao, dia, compromissos),
+                (atual, nova) -> nova.maisRecenteQue(atual) ? nova : atual);
+        return compromissos;
+    }
+
+    // Descarta a agenda do usuário assim que uma alteração feita por esta instância é confirmada, liberando a memória
+    // antes da expiração
+    @TransactionalEventListener(fallbackExecution = true)
+    public void agendaAlterada(AgendaAlteradaEvent evento) {
+        cache.invalidate(evento.usuarioId());
+    }
+
+    // Quantidade de leituras atendidas pelo cache
+    public long getAcertos() {
+        return cache.stats().hitCount();
+    }
+
+    // Quantidade de leituras que precisaram consultar o banco
+    public long getFalhas() {
+        return cache.stats().missCount();
+    }
+
+    // Publica as estatísticas do cache (acertos, falhas, remoções e tamanho) como métricas
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "agendas");
+    }
+}
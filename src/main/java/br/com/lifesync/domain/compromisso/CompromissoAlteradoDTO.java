@@ -0,0 +1,22 @@
+package br.com.lifesync.domain.compromisso;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+//Compromisso cadastrado, editado, concluído ou excluído desde a última sincronização do cliente.
+//Compromissos excluídos vêm com ativo = false, para que o cliente os retire da cópia local; a versão
+//é a mesma do ETag do compromisso e pode ser usada no If-Match de uma edição.
+//Séries recorrentes vêm uma única vez, com a regra e as ocorrências canceladas, para serem expandidas pelo cliente
+public record CompromissoAlteradoDTO(Long id, String titulo, String data, String hora, String tipo,
+                                     boolean concluido, boolean ativo, Long versao,
+                                     String recorrencia, List<String> excecoes) {
+
+    //Construtor usado pelas consultas de sincronização, que selecionam as colunas direto no DTO
+    public CompromissoAlteradoDTO(Long id, String titulo, LocalDate data, LocalTime hora, String tipo,
+                                  boolean concluido, boolean ativo, Long versao,
+                                  String recorrencia, List<LocalDate> excecoes) {
+        this(id, titulo, data.toString(), hora.toString(), tipo, concluido, ativo, versao, recorrencia,
+                excecoes != null ? excecoes.stream().map(LocalDate::toString).toList() : List.of());
+    }
+}
@@ -1,4 +1,12 @@
 package br.com.lifesync.domain.compromisso;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 public record CompromissoDTO(Long id, String titulo, String data, String hora, String tipo) {
-}
\ No newline at end of file
+
+    //Construtor usado pelas consultas da agenda, que selecionam as colunas direto no DTO
+    public CompromissoDTO(Long id, String titulo, LocalDate data, LocalTime hora, String tipo) {
+        this(id, titulo, data.toString(), hora.toString(), tipo);
+    }
+}
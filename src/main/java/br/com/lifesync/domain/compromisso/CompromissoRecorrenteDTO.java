@@ -0,0 +1,31 @@
+package br.com.lifesync.domain.compromisso;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//Série de compromissos recorrentes, guardada uma única vez: a data é a da primeira ocorrência, a recorrência é
+//a regra (RegraDeRecorrencia) e as exceções são as datas das ocorrências canceladas
+public record CompromissoRecorrenteDTO(Long id, String titulo, LocalDate data, LocalTime hora, String tipo,
+                                       String recorrencia, List<LocalDate> excecoes) {
+
+    public CompromissoRecorrenteDTO {
+        excecoes = excecoes != null ? excecoes : List.of();
+    }
+
+    //Ocorrências da série entre as datas informadas, exceto as canceladas, em ordem de data e calculadas sob demanda.
+    //Cada ocorrência leva o id da série; o par (id, data) a identifica
+    public Stream<CompromissoDTO> ocorrencias(LocalDate de, LocalDate ate) {
+        Set<LocalDate> canceladas = new HashSet<>(excecoes);
+        var datas = RegraDeRecorrencia.decodificar(recorrencia).ocorrencias(data, de, ate);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(datas, Spliterator.ORDERED), false)
+                .filter(ocorrencia -> !canceladas.contains(ocorrencia))
+                .map(ocorrencia -> new CompromissoDTO(id, titulo, ocorrencia, hora, tipo));
+    }
+}
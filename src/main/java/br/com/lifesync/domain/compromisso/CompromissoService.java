@@ -1,21 +1,52 @@
 package br.com.lifesync.domain.compromisso;
 
+import br.com.lifesync.domain.ValidacaoException;
 import br.com.lifesync.domain.evento.EventoRepository;
-import br.com.lifesync.domain.tarefa.Tarefa;
 import br.com.lifesync.domain.tarefa.TarefaRepository;
 import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CompromissoService {
 
+    public static final int TAMANHO_MAXIMO_PAGINA = 200;
+
+    // Limites do tipo DATE do MySQL, usados quando a página não define o período
+    private static final LocalDate DATA_MINIMA = LocalDate.of(1000, 1, 1);
+    private static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    // Situações (ativo) dos compromissos enviados na sincronização completa e na incremental
+    private static final List<Boolean> APENAS_ATIVOS = List.of(true);
+    private static final List<Boolean> ATIVOS_E_EXCLUIDOS = List.of(true, false);
+
+    private static final String TIPO_TAREFA = "tarefa";
+    private static final String TIPO_EVENTO = "evento";
+
+    // Ordem da agenda; cada tabela é lida já ordenada por (data, hora, id), então o tipo só desempata as duas.
+    // Data e hora estão em ISO-8601, cuja ordem alfabética coincide com a cronológica
+    public static final Comparator<CompromissoDTO> ORDEM_DA_AGENDA = Comparator.comparing(CompromissoDTO::data)
+            .thenComparing(CompromissoDTO::hora)
+            .thenComparing(CompromissoDTO::tipo)
+            .thenComparing(CompromissoDTO::id);
+
     @Autowired
     private EventoRepository eventoRepository;
 
@@ -25,38 +56,138 @@ public class CompromissoService {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private AgendaCache agendaCache;
+
+    @Autowired
+    private VersaoDaAgenda versaoDaAgenda;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Até quando as séries recorrentes são expandidas na agenda completa, que não tem período definido
+    @Value("${app.agenda.recorrencia.horizonte:1y}")
+    private Period horizonteDeRecorrencia = Period.ofYears(1);
+
+    // Margem descontada do momento da sincronização no token devolvido: uma alteração gravada pouco antes da leitura,
+    // mas confirmada depois dela, ainda entra na sincronização seguinte (ao custo de reenviar as alterações recentes).
+    // O momento gravado (atualizadoEm) é o relógio da aplicação no flush, e não o da confirmação: transações que levam
+    // mais que a margem entre o flush e o commit, ou relógios de instâncias defasados além dela, podem ser perdidos
+    @Value("${app.agenda.sincronizacao.margem:5s}")
+    private Duration margemDeSincronizacao = Duration.ofSeconds(5);
+
+    // Método para listar a agenda completa do usuário logado, servida pelo AgendaCache enquanto a versão e o dia não mudam.
+    // A transação só é aberta quando é preciso consultar o banco, então um acerto não ocupa conexão do pool.
+    // A versão é lida antes da consulta: uma alteração confirmada durante a leitura troca a versão e descarta o resultado
     public List<CompromissoDTO> listarCompromissosOrdenados() {
-        List<Compromisso> compromissos = buscarCompromissosDoUsuarioLogado();
-        List<Compromisso> compromissosOrdenados = ordenarCompromissosPorDataEHora(compromissos);
-        return converterParaDTO(compromissosOrdenados);
+        Usuario usuario = usuarioService.obterUsuarioLogado();
+        LocalDate hoje = versaoDaAgenda.hoje();
+        long versao = versaoDaAgenda.versao(usuario.getId());
+        return agendaCache.buscar(usuario.getId(), versao, hoje, () -> carregarCompromissosOrdenados(usuario, hoje));
     }
 
-    private List<Compromisso> buscarCompromissosDoUsuarioLogado() {
-        Usuario usuario = usuarioService.obterUsuarioLogado();
-        List<Compromisso> compromissos = new ArrayList<>();
-        compromissos.addAll(tarefaRepository.findByUsuarioAndAtivaTrue(usuario));
-        compromissos.addAll(eventoRepository.findByUsuarioAndAtivoTrue(usuario));
-        return compromissos;
+    private List<CompromissoDTO> carregarCompromissosOrdenados(Usuario usuario, LocalDate hoje) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        return transacao.execute(status -> {
+            try (Stream<CompromissoDTO> compromissos = percorrerCompromissosOrdenados(usuario.getId(), hoje)) {
+                return compromissos.toList();
+            }
+        });
     }
 
-    private List<Compromisso> ordenarCompromissosPorDataEHora(List<Compromisso> compromissos) {
-        return compromissos.stream()
-                .sorted(Comparator.comparing(Compromisso::getData)
-                        .thenComparing(Compromisso::getHora))
-                .toList();
+    // Método para entregar a agenda do usuário, em ordem, a um consumidor à medida que as linhas são lidas do banco,
+    // sem montar a lista: a memória usada não depende do tamanho da agenda. O usuário é informado pelo chamador
+    // porque o consumo pode ocorrer fora da thread da requisição
+    @Transactional(readOnly = true)
+    public void percorrerAgenda(Long usuarioId, Consumer<CompromissoDTO> consumidor) {
+        try (Stream<CompromissoDTO> compromissos = percorrerCompromissosOrdenados(usuarioId, versaoDaAgenda.hoje())) {
+            compromissos.forEach(consumidor);
+        }
     }
 
-    private List<CompromissoDTO> converterParaDTO(List<Compromisso> compromissos) {
-        List<CompromissoDTO> compromissosDTO = new ArrayList<>();
-        for (Compromisso c : compromissos) {
-            compromissosDTO.add(converterParaDTO(c));
+    // Método para percorrer a agenda do usuário em ordem, mesclando sob demanda as tarefas e os eventos lidos
+    // do banco já ordenados e as ocorrências das séries recorrentes, calculadas até o horizonte de recorrência a partir de hoje;
+    // obter os N primeiros compromissos exige memória proporcional a N e ao número de séries, e não ao total.
+    // Deve ser consumido dentro de uma transação e fechado ao final.
+    private Stream<CompromissoDTO> percorrerCompromissosOrdenados(Long usuarioId, LocalDate hoje) {
+        LocalDate horizonte = hoje.plus(horizonteDeRecorrencia);
+        List<CompromissoRecorrenteDTO> series = buscarSeries(usuarioId, horizonte);
+
+        List<Stream<CompromissoDTO>> fontes = new ArrayList<>();
+        fontes.add(tarefaRepository.buscarAtivasOrdenadasDoUsuario(usuarioId));
+        fontes.add(eventoRepository.buscarAtivosOrdenadosDoUsuario(usuarioId));
+        for (CompromissoRecorrenteDTO serie : series) {
+            fontes.add(serie.ocorrencias(serie.data(), horizonte));
         }
-        return compromissosDTO;
+        return MesclaOrdenada.mesclar(ORDEM_DA_AGENDA, fontes);
+    }
+
+    // Séries recorrentes ativas de tarefas e eventos do usuário que começam até a data informada
+    private List<CompromissoRecorrenteDTO> buscarSeries(Long usuarioId, LocalDate ate) {
+        List<CompromissoRecorrenteDTO> series = new ArrayList<>(tarefaRepository.buscarSeriesAtivasDoUsuario(usuarioId, ate));
+        series.addAll(eventoRepository.buscarSeriesAtivasDoUsuario(usuarioId, ate));
+        return series;
     }
 
-    private CompromissoDTO converterParaDTO(Compromisso compromisso) {
-        String tipo = (compromisso instanceof Tarefa) ? "tarefa" : "evento";
-        return new CompromissoDTO(compromisso.getId(), compromisso.getTitulo(),
-                compromisso.getData().toString(), compromisso.getHora().toString(), tipo);
+    // Método para listar uma página da agenda do usuário logado, a partir do cursor informado (ou do início do período).
+    // Cada tabela é consultada com limite de tamanho + 1 registros a partir do cursor, o que dispensa a leitura dos anteriores.
+    // As séries recorrentes são expandidas apenas a partir do cursor e só até completar a página.
+    @Transactional(readOnly = true)
+    public PaginaCompromissosDTO listarPaginaDeCompromissos(LocalDate de, LocalDate ate, String cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new ValidacaoException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        LocalDate inicio = de != null ? de : DATA_MINIMA;
+        LocalDate fim = ate != null ? ate : DATA_MAXIMA;
+        if (inicio.isAfter(fim)) {
+            throw new ValidacaoException("A data inicial deve ser anterior ou igual à data final");
+        }
+        CursorCompromisso posicao = cursor != null ? CursorCompromisso.decodificar(cursor) : CursorCompromisso.inicio(inicio);
+
+        Usuario usuario = usuarioService.obterUsuarioLogado();
+        PageRequest limite = PageRequest.ofSize(tamanho + 1);
+        List<CompromissoDTO> tarefas = tarefaRepository.buscarPaginaDoUsuario(usuario.getId(), inicio, fim, posicao.data(), posicao.hora(),
+                posicao.idLimitePara(TIPO_TAREFA), limite);
+        List<CompromissoDTO> eventos = eventoRepository.buscarPaginaDoUsuario(usuario.getId(), inicio, fim, posicao.data(), posicao.hora(),
+                posicao.idLimitePara(TIPO_EVENTO), limite);
+
+        List<Stream<CompromissoDTO>> fontes = new ArrayList<>();
+        fontes.add(tarefas.stream());
+        fontes.add(eventos.stream());
+        LocalDate aPartirDe = posicao.data().isAfter(inicio) ? posicao.data() : inicio;
+        for (CompromissoRecorrenteDTO serie : buscarSeries(usuario.getId(), fim)) {
+            fontes.add(serie.ocorrencias(aPartirDe, fim).filter(posicao::antecede));
+        }
+
+        List<CompromissoDTO> pagina = MesclaOrdenada.mesclar(ORDEM_DA_AGENDA, fontes)
+                .limit(tamanho + 1L)
+                .toList();
+
+        if (pagina.size() <= tamanho) {
+            return new PaginaCompromissosDTO(pagina, null);
+        }
+        List<CompromissoDTO> compromissosDaPagina = pagina.subList(0, tamanho);
+        String proximoCursor = CursorCompromisso.de(compromissosDaPagina.get(tamanho - 1)).codificar();
+        return new PaginaCompromissosDTO(compromissosDaPagina, proximoCursor);
+    }
+
+    // Método para sincronizar a agenda do usuário logado. Sem token, devolve todos os compromissos ativos; com o token
+    // da sincronização anterior, apenas os cadastrados, editados, concluídos ou excluídos desde então.
+    // O cliente deve aplicar as alterações pelo id e tipo, pois as da margem do token podem vir repetidas
+    @Transactional(readOnly = true)
+    public SincronizacaoDTO sincronizar(String token) {
+        Instant desde = token != null ? TokenSincronizacao.decodificar(token).desde() : null;
+        // Lido antes das consultas, para que o próximo token não ultrapasse alterações que elas não viram
+        Instant agora = Instant.now();
+        Long usuarioId = usuarioService.obterUsuarioLogado().getId();
+
+        Instant inicio = desde != null ? desde : Instant.EPOCH;
+        List<Boolean> situacoes = desde != null ? ATIVOS_E_EXCLUIDOS : APENAS_ATIVOS;
+        List<CompromissoAlteradoDTO> alterados = new ArrayList<>(tarefaRepository.buscarAlteradasDoUsuario(usuarioId, inicio, situacoes));
+        alterados.addAll(eventoRepository.buscarAlteradosDoUsuario(usuarioId, inicio, situacoes));
+
+        String proximoToken = new TokenSincronizacao(agora.minus(margemDeSincronizacao)).codificar();
+        return new SincronizacaoDTO(alterados, proximoToken);
     }
-}
\ No newline at end of file
+}
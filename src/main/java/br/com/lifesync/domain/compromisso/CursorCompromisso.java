@@ -0,0 +1,77 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+//Posição de um compromisso na agenda, na ordem (data, hora, tipo, id), usada na paginação por cursor
+public record CursorCompromisso(LocalDate data, LocalTime hora, String tipo, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    //Mesma ordem da agenda (CompromissoService.ORDEM_DA_AGENDA)
+    private static final Comparator<CursorCompromisso> ORDEM = Comparator.comparing(CursorCompromisso::data)
+            .thenComparing(CursorCompromisso::hora)
+            .thenComparing(CursorCompromisso::tipo)
+            .thenComparing(CursorCompromisso::id);
+
+    //Cursor posicionado antes de qualquer compromisso da data informada
+    public static CursorCompromisso inicio(LocalDate data) {
+        return new CursorCompromisso(data, LocalTime.MIN, "", -1L);
+    }
+
+    //Cursor posicionado no compromisso informado
+    public static CursorCompromisso de(CompromissoDTO compromisso) {
+        return new CursorCompromisso(LocalDate.parse(compromisso.data()), LocalTime.parse(compromisso.hora()),
+                compromisso.tipo(), compromisso.id());
+    }
+
+    //Converte o cursor em um texto opaco para o cliente
+    public String codificar() {
+        String texto = data + SEPARADOR + hora + SEPARADOR + tipo + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Recupera o cursor a partir do texto devolvido ao cliente na página anterior
+    public static CursorCompromisso decodificar(String cursor) {
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARADOR, -1);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidacaoException("Cursor inválido");
+        }
+        if (partes.length != 4) {
+            throw new ValidacaoException("Cursor inválido");
+        }
+        try {
+            return new CursorCompromisso(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]),
+                    partes[2], Long.valueOf(partes[3]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new ValidacaoException("Cursor inválido");
+        }
+    }
+
+    //Indica se o compromisso vem depois do cursor na agenda, ou seja, se pertence às páginas seguintes
+    public boolean antecede(CompromissoDTO compromisso) {
+        return ORDEM.compare(this, de(compromisso)) < 0;
+    }
+
+    //Limite de id a ser usado na consulta de um tipo de compromisso, para que empates de data e hora
+    //sejam resolvidos pelo tipo antes do id: tipos posteriores ao do cursor incluem todos os ids,
+    //tipos anteriores não incluem nenhum
+    public Long idLimitePara(String tipoConsultado) {
+        int comparacao = tipoConsultado.compareTo(tipo);
+        if (comparacao > 0) {
+            return -1L;
+        }
+        if (comparacao < 0) {
+            return Long.MAX_VALUE;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.lifesync.domain.compromisso;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//Guarda uma lista de datas em uma única coluna, como datas ISO-8601 separadas por vírgula; lista vazia é gravada como nula
+@Converter
+public class ListaDeDatasConverter implements AttributeConverter<List<LocalDate>, String> {
+
+    private static final String SEPARADOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<LocalDate> datas) {
+        if (datas == null || datas.isEmpty()) {
+            return null;
+        }
+        return datas.stream().map(LocalDate::toString).collect(Collectors.joining(SEPARADOR));
+    }
+
+    @Override
+    public List<LocalDate> convertToEntityAttribute(String coluna) {
+        if (coluna == null || coluna.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(coluna.split(SEPARADOR)).map(LocalDate::parse).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.lifesync.domain.compromisso;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//Mescla k fontes já ordenadas em uma única sequência ordenada, sob demanda.
+//Apenas o elemento corrente de cada fonte fica em memória, e elementos empatados
+//são devolvidos na ordem em que as fontes foram informadas.
+public final class MesclaOrdenada<T> implements Iterator<T> {
+
+    private final PriorityQueue<Cabeca<T>> cabecas;
+
+    private MesclaOrdenada(Comparator<? super T> ordem, List<? extends Iterator<? extends T>> fontes) {
+        Comparator<Cabeca<T>> ordemDasCabecas = Comparator.comparing(Cabeca::elemento, ordem);
+        this.cabecas = new PriorityQueue<>(Math.max(1, fontes.size()), ordemDasCabecas.thenComparingInt(Cabeca::indiceFonte));
+        for (int i = 0; i < fontes.size(); i++) {
+            avancar(fontes.get(i), i);
+        }
+    }
+
+    //Mescla os streams informados, cada um já ordenado segundo a ordem dada, em um stream ordenado e preguiçoso
+    @SafeVarargs
+    public static <T> Stream<T> mesclar(Comparator<? super T> ordem, Stream<? extends T>... fontes) {
+        return mesclar(ordem, List.of(fontes));
+    }
+
+    //Mescla a lista de streams informada, para quando a quantidade de fontes só é conhecida em tempo de execução
+    public static <T> Stream<T> mesclar(Comparator<? super T> ordem, List<? extends Stream<? extends T>> fontes) {
+        List<Iterator<? extends T>> iteradores = new ArrayList<>();
+        for (Stream<? extends T> fonte : fontes) {
+            iteradores.add(fonte.iterator());
+        }
+        var mescla = new MesclaOrdenada<T>(ordem, iteradores);
+        Stream<T> resultado = StreamSupport.stream(Spliterators.spliteratorUnknownSize(mescla, Spliterator.ORDERED), false);
+        for (Stream<? extends T> fonte : fontes) {
+            resultado = resultado.onClose(fonte::close);
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cabecas.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Cabeca<T> menor = cabecas.poll();
+        if (menor == null) {
+            throw new NoSuchElementException();
+        }
+        avancar(menor.fonte(), menor.indiceFonte());
+        return menor.elemento();
+    }
+
+    private void avancar(Iterator<? extends T> fonte, int indiceFonte) {
+        if (fonte.hasNext()) {
+            cabecas.add(new Cabeca<>(fonte.next(), fonte, indiceFonte));
+        }
+    }
+
+    private record Cabeca<T>(T elemento, Iterator<? extends T> fonte, int indiceFonte) {
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.lifesync.domain.compromisso;
+
+import java.util.List;
+
+//Representa uma página da agenda e o cursor para buscar a próxima (nulo na última página)
+public record PaginaCompromissosDTO(List<CompromissoDTO> compromissos, String proximoCursor) {
+}
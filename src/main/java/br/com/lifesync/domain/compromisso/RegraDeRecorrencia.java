@@ -0,0 +1,274 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.ValidacaoException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+//Regra de recorrência de uma série de compromissos, no formato do RRULE (RFC 5545), restrita a:
+//FREQ=DAILY|WEEKLY|MONTHLY|YEARLY, INTERVAL, COUNT ou UNTIL (data, yyyyMMdd) e BYDAY (apenas com WEEKLY).
+//A primeira ocorrência é a data do compromisso, mesmo que o dia da semana dela não esteja em BYDAY, e conta para
+//o COUNT, como o DTSTART na RFC 5545; nos meses ou anos sem o dia dela (31, 29/02), não há ocorrência.
+//As ocorrências são calculadas sob demanda e apenas no período pedido, sem percorrer as anteriores quando não há COUNT
+public record RegraDeRecorrencia(Frequencia frequencia, int intervalo, Integer contagem, LocalDate termino, Set<DayOfWeek> dias) {
+
+    public enum Frequencia { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    public static final int CONTAGEM_MAXIMA = 1000;
+
+    private static final Map<String, DayOfWeek> DIAS_DA_SEMANA = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY, "TH", DayOfWeek.THURSDAY,
+            "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private static final String PREFIXO = "RRULE:";
+
+    public RegraDeRecorrencia {
+        dias = dias.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(dias));
+    }
+
+    //Valida e normaliza o texto da regra informado no cadastro; texto vazio indica um compromisso sem recorrência
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        return decodificar(texto).codificar();
+    }
+
+    //Interpreta o texto da regra, como "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;COUNT=10"
+    public static RegraDeRecorrencia decodificar(String texto) {
+        String regra = texto.trim().toUpperCase();
+        if (regra.startsWith(PREFIXO)) {
+            regra = regra.substring(PREFIXO.length());
+        }
+        Frequencia frequencia = null;
+        int intervalo = 1;
+        Integer contagem = null;
+        LocalDate termino = null;
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (String parte : regra.split(";")) {
+            String[] chaveValor = parte.split("=", 2);
+            if (chaveValor.length != 2 || chaveValor[1].isEmpty()) {
+                throw invalida("cada parte deve estar no formato CHAVE=VALOR");
+            }
+            String valor = chaveValor[1];
+            switch (chaveValor[0]) {
+                case "FREQ" -> frequencia = frequencia(valor);
+                case "INTERVAL" -> intervalo = inteiro(valor, "INTERVAL");
+                case "COUNT" -> contagem = inteiro(valor, "COUNT");
+                case "UNTIL" -> termino = data(valor);
+                case "BYDAY" -> {
+                    for (String dia : valor.split(",")) {
+                        DayOfWeek diaDaSemana = DIAS_DA_SEMANA.get(dia);
+                        if (diaDaSemana == null) {
+                            throw invalida("BYDAY aceita apenas MO, TU, WE, TH, FR, SA e SU");
+                        }
+                        dias.add(diaDaSemana);
+                    }
+                }
+                default -> throw invalida("a chave " + chaveValor[0] + " não é suportada");
+            }
+        }
+        if (frequencia == null) {
+            throw invalida("FREQ é obrigatório");
+        }
+        if (contagem != null && termino != null) {
+            throw invalida("informe COUNT ou UNTIL, não ambos");
+        }
+        if (contagem != null && contagem > CONTAGEM_MAXIMA) {
+            throw invalida("COUNT deve ser no máximo " + CONTAGEM_MAXIMA);
+        }
+        if (!dias.isEmpty() && frequencia != Frequencia.WEEKLY) {
+            throw invalida("BYDAY é aceito apenas com FREQ=WEEKLY");
+        }
+        return new RegraDeRecorrencia(frequencia, intervalo, contagem, termino, dias);
+    }
+
+    //Texto da regra em forma canônica, como é guardado no banco
+    public String codificar() {
+        StringBuilder texto = new StringBuilder("FREQ=").append(frequencia);
+        if (intervalo != 1) {
+            texto.append(";INTERVAL=").append(intervalo);
+        }
+        if (!dias.isEmpty()) {
+            texto.append(";BYDAY=").append(dias.stream()
+                    .map(dia -> dia.name().substring(0, 2))
+                    .collect(Collectors.joining(",")));
+        }
+        if (contagem != null) {
+            texto.append(";COUNT=").append(contagem);
+        }
+        if (termino != null) {
+            texto.append(";UNTIL=").append(termino.format(DateTimeFormatter.BASIC_ISO_DATE));
+        }
+        return texto.toString();
+    }
+
+    //Datas das ocorrências da série iniciada em inicio que caem entre de e ate (inclusive), em ordem crescente
+    public Iterator<LocalDate> ocorrencias(LocalDate inicio, LocalDate de, LocalDate ate) {
+        return new Ocorrencias(inicio, de, termino != null && termino.isBefore(ate) ? termino : ate);
+    }
+
+    //Indica se a data é uma ocorrência da série iniciada em inicio
+    public boolean ocorreEm(LocalDate inicio, LocalDate data) {
+        return ocorrencias(inicio, data, data).hasNext();
+    }
+
+    //Percorre os períodos da regra (dias, semanas, meses ou anos, de intervalo em intervalo), gerando as datas
+    //candidatas de cada um. Sem COUNT, começa no período que contém a data inicial pedida; com COUNT, começa no
+    //primeiro período, pois as ocorrências anteriores ao pedido também contam para o limite
+    private final class Ocorrencias implements Iterator<LocalDate> {
+
+        private final LocalDate inicio;
+        private final LocalDate de;
+        private final LocalDate fim;
+        private final Deque<LocalDate> candidatas = new ArrayDeque<>();
+        private long periodo;
+        private int contadas;
+        private LocalDate proxima;
+        private boolean terminou;
+
+        private Ocorrencias(LocalDate inicio, LocalDate de, LocalDate fim) {
+            this.inicio = inicio;
+            this.de = de;
+            this.fim = fim;
+            this.periodo = contagem == null ? Math.max(0, Math.floorDiv(periodosAte(de), intervalo)) : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (proxima == null && !terminou) {
+                if (candidatas.isEmpty()) {
+                    if (aberturaDoPeriodo(periodo).isAfter(fim)) {
+                        terminou = true;
+                    } else {
+                        gerarCandidatas(periodo++);
+                    }
+                    continue;
+                }
+                LocalDate data = candidatas.poll();
+                if (data.isBefore(inicio)) {
+                    continue;
+                }
+                if (data.isAfter(fim) || (contagem != null && ++contadas > contagem)) {
+                    terminou = true;
+                } else if (!data.isBefore(de)) {
+                    proxima = data;
+                }
+            }
+            return proxima != null;
+        }
+
+        @Override
+        public LocalDate next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LocalDate data = proxima;
+            proxima = null;
+            return data;
+        }
+
+        //Quantidade de períodos (sem considerar o intervalo) entre o da primeira ocorrência e o da data informada
+        private long periodosAte(LocalDate data) {
+            return switch (frequencia) {
+                case DAILY -> ChronoUnit.DAYS.between(inicio, data);
+                case WEEKLY -> ChronoUnit.WEEKS.between(segundaFeira(inicio), segundaFeira(data));
+                case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(inicio), YearMonth.from(data));
+                case YEARLY -> (long) data.getYear() - inicio.getYear();
+            };
+        }
+
+        //Primeira data que pode ocorrer no período informado
+        private LocalDate aberturaDoPeriodo(long indice) {
+            long deslocamento = indice * intervalo;
+            return switch (frequencia) {
+                case DAILY -> inicio.plusDays(deslocamento);
+                case WEEKLY -> segundaFeira(inicio).plusWeeks(deslocamento);
+                case MONTHLY -> YearMonth.from(inicio).plusMonths(deslocamento).atDay(1);
+                case YEARLY -> LocalDate.of(inicio.getYear(), 1, 1).plusYears(deslocamento);
+            };
+        }
+
+        private void gerarCandidatas(long indice) {
+            LocalDate abertura = aberturaDoPeriodo(indice);
+            switch (frequencia) {
+                case DAILY -> candidatas.add(abertura);
+                case WEEKLY -> {
+                    if (dias.isEmpty()) {
+                        candidatas.add(abertura.with(TemporalAdjusters.nextOrSame(inicio.getDayOfWeek())));
+                    } else {
+                        dias.forEach(dia -> candidatas.add(abertura.with(TemporalAdjusters.nextOrSame(dia))));
+                        //As candidatas da primeira semana anteriores à data inicial são descartadas, então ela
+                        //pode ir à frente das demais
+                        if (indice == 0 && !dias.contains(inicio.getDayOfWeek())) {
+                            candidatas.addFirst(inicio);
+                        }
+                    }
+                }
+                case MONTHLY -> {
+                    YearMonth mes = YearMonth.from(abertura);
+                    if (mes.isValidDay(inicio.getDayOfMonth())) {
+                        candidatas.add(mes.atDay(inicio.getDayOfMonth()));
+                    }
+                }
+                case YEARLY -> {
+                    MonthDay diaDoAno = MonthDay.from(inicio);
+                    if (diaDoAno.isValidYear(abertura.getYear())) {
+                        candidatas.add(diaDoAno.atYear(abertura.getYear()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static LocalDate segundaFeira(LocalDate data) {
+        return data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Frequencia frequencia(String valor) {
+        try {
+            return Frequencia.valueOf(valor);
+        } catch (IllegalArgumentException ex) {
+            throw invalida("FREQ deve ser DAILY, WEEKLY, MONTHLY ou YEARLY");
+        }
+    }
+
+    private static int inteiro(String valor, String chave) {
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero >= 1) {
+                return numero;
+            }
+        } catch (NumberFormatException ex) {
+            // Tratado abaixo, com a mesma mensagem de um número não positivo
+        }
+        throw invalida(chave + " deve ser um número inteiro positivo");
+    }
+
+    private static LocalDate data(String valor) {
+        try {
+            return LocalDate.parse(valor, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException ex) {
+            throw invalida("UNTIL deve ser uma data no formato yyyyMMdd");
+        }
+    }
+
+    private static ValidacaoException invalida(String motivo) {
+        return new ValidacaoException("Regra de recorrência inválida: " + motivo);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.lifesync.domain.compromisso;
+
+import java.util.List;
+
+//Alterações da agenda desde o token informado pelo cliente e o token a ser usado na próxima sincronização
+public record SincronizacaoDTO(List<CompromissoAlteradoDTO> alterados, String token) {
+}
@@ -0,0 +1,26 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+//Momento a partir do qual o cliente precisa receber as alterações da agenda, usado na sincronização incremental
+public record TokenSincronizacao(Instant desde) {
+
+    //Converte o token em um texto opaco para o cliente
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(desde.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Recupera o token a partir do texto devolvido ao cliente na sincronização anterior
+    public static TokenSincronizacao decodificar(String token) {
+        try {
+            return new TokenSincronizacao(Instant.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ValidacaoException("Token de sincronização inválido");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.usuario.UsuarioRepository;
+import br.com.lifesync.domain.usuario.UsuarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
+
+// Versão da agenda de cada usuário, incrementada na mesma transação de cada alteração nas suas tarefas e eventos.
+// É a base dos ETags das leituras da agenda: enquanto a versão não muda, o cliente pode reaproveitar a resposta.
+// A versão fica no banco (coluna versao_agenda de usuarios), para que uma alteração feita por uma instância da
+// aplicação troque o ETag e invalide o AgendaCache de todas as outras; lê-la é uma consulta pela chave primária.
+// A agenda também depende do dia, pois as séries recorrentes são expandidas até um horizonte contado a partir dele:
+// o dia entra no ETag e na chave do AgendaCache, e ambos mudam na virada do dia mesmo sem alterações.
+@Component
+public class VersaoDaAgenda {
+
+    private final UsuarioService usuarioService;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final Supplier<LocalDate> relogio;
+
+    @Autowired
+    public VersaoDaAgenda(UsuarioService usuarioService, UsuarioRepository usuarioRepository) {
+        this(usuarioService, usuarioRepository, LocalDate::now);
+    }
+
+    public VersaoDaAgenda(UsuarioService usuarioService, UsuarioRepository usuarioRepository, Supplier<LocalDate> relogio) {
+        this.usuarioService = usuarioService;
+        this.usuarioRepository = usuarioRepository;
+        this.relogio = relogio;
+    }
+
+    // Método para obter o dia a partir do qual a agenda é calculada
+    public LocalDate hoje() {
+        return relogio.get();
+    }
+
+    // Método para obter a versão atual (confirmada) da agenda do usuário
+    public long versao(Long usuarioId) {
+        Long versao = usuarioRepository.buscarVersaoDaAgenda(usuarioId);
+        return versao != null ? versao : 0;
+    }
+
+    // Método para obter o ETag da agenda do usuário logado, com a versão e o dia. O ETag é fraco porque o Tomcat não
+    // comprime respostas com ETag forte (que promete os mesmos bytes em qualquer codificação); o If-None-Match usa
+    // comparação fraca
+    public String etagDoUsuarioLogado() {
+        Long usuarioId = usuarioService.obterUsuarioLogado().getId();
+        return "W/\"" + usuarioId + "-" + versao(usuarioId) + "-" + hoje().format(DateTimeFormatter.BASIC_ISO_DATE) + "\"";
+    }
+
+    // Incrementa a versão dentro da transação da alteração: a versão nova só fica visível com o commit dela, e é
+    // descartada junto com ela em caso de rollback
+    @EventListener
+    public void agendaAlterada(AgendaAlteradaEvent evento) {
+        usuarioRepository.incrementarVersaoDaAgenda(evento.usuarioId());
+    }
+}
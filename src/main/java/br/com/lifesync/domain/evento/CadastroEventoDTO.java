@@ -2,6 +2,7 @@ package br.com.lifesync.domain.evento;
 
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 //Representa um objeto de transferência de dados para o cadastro de um evento
 public record CadastroEventoDTO( 
@@ -14,5 +15,13 @@ public record CadastroEventoDTO(
     @Pattern(regexp = "\\d{2}:\\d{2}", message = "A hora deve estar no formato HH:mm")
     String hora,
     @NotBlank(message = "O local é obrigatório")
-    String local) {
+    String local,
+    // Regra de recorrência opcional (subconjunto do RRULE, ex.: FREQ=WEEKLY;BYDAY=MO), validada no cadastro
+    @Size(max = 255, message = "A recorrência deve ter no máximo 255 caracteres")
+    String recorrencia) {
+
+    // Cadastro de um compromisso único, sem recorrência
+    public CadastroEventoDTO(String titulo, String data, String hora, String local) {
+        this(titulo, data, hora, local, null);
+    }
 }
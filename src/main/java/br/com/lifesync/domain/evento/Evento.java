@@ -1,22 +1,43 @@
 package br.com.lifesync.domain.evento;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import br.com.lifesync.domain.compromisso.Compromisso;
+import br.com.lifesync.domain.compromisso.ListaDeDatasConverter;
+import br.com.lifesync.domain.compromisso.RegraDeRecorrencia;
 import br.com.lifesync.domain.usuario.Usuario;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.UpdateTimestamp;
 
 //Entidade que representa um evento
 @Entity
-@Table(name = "eventos")
+// Índice alinhado às consultas da agenda: filtra por usuário, situação e recorrência e já entrega os compromissos avulsos
+// na ordem (data, hora, id); também localiza as séries recorrentes do usuário sem percorrer os avulsos
+// O segundo índice atende a sincronização incremental, que busca as alterações do usuário a partir de um momento
+@Table(name = "eventos", indexes = {
+        @Index(name = "idx_eventos_usuario_ativo_recorrencia_agenda", columnList = "usuario_id, ativo, recorrencia, data, hora, id"),
+        @Index(name = "idx_eventos_usuario_atualizacao", columnList = "usuario_id, atualizado_em")
+})
 public class Evento extends Compromisso {
+    // Ids reservados em blocos de 50, para que as inserções em lote possam ser agrupadas pelo JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_seq")
+    @SequenceGenerator(name = "eventos_seq", sequenceName = "eventos_seq", allocationSize = 50)
     private Long id;
     private String titulo;
     private String local;
@@ -24,7 +45,23 @@ public class Evento extends Compromisso {
     private LocalTime hora;
     private boolean ativo;
     private boolean concluida;
-    @ManyToOne
+    // Regra de recorrência (RegraDeRecorrencia) quando o evento é uma série; a data é a da primeira ocorrência
+    private String recorrencia;
+    // Datas das ocorrências canceladas da série
+    @Convert(converter = ListaDeDatasConverter.class)
+    @Column(columnDefinition = "text")
+    private List<LocalDate> excecoes = List.of();
+    // Preenchido pelo Hibernate ao inserir e ao alterar a entidade; os UPDATEs do repositório o atualizam explicitamente
+    @JsonIgnore
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+    // Incrementada a cada alteração (pelo Hibernate ou pelos UPDATEs do repositório); exposta como ETag
+    @JsonIgnore
+    @Version
+    private Long versao;
+    // Carregado apenas quando acessado; não é serializado junto com o compromisso
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     private Usuario usuario;
     
     // Construtor
@@ -37,6 +74,7 @@ public class Evento extends Compromisso {
         this.local = dto.local();
         this.ativo = true;
         this.concluida = false;
+        this.recorrencia = RegraDeRecorrencia.normalizar(dto.recorrencia());
     }
 
     // Getters e Setters
@@ -101,6 +139,37 @@ public class Evento extends Compromisso {
     public boolean isConcluida() {
         return concluida;
     }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public String getRecorrencia() {
+        return recorrencia;
+    }
+
+    public List<LocalDate> getExcecoes() {
+        return excecoes != null ? excecoes : List.of();
+    }
+
+    //Cancela a ocorrência da série na data informada; retorna falso se a data não for uma ocorrência.
+    //A lista é substituída, e não alterada, para que o Hibernate perceba a mudança e incremente a versão
+    public boolean cancelarOcorrencia(LocalDate dataDaOcorrencia) {
+        if (recorrencia == null || !RegraDeRecorrencia.decodificar(recorrencia).ocorreEm(data, dataDaOcorrencia)) {
+            return false;
+        }
+        if (!getExcecoes().contains(dataDaOcorrencia)) {
+            List<LocalDate> canceladas = new ArrayList<>(getExcecoes());
+            canceladas.add(dataDaOcorrencia);
+            canceladas.sort(null);
+            this.excecoes = List.copyOf(canceladas);
+        }
+        return true;
+    }
     public Usuario getUsuario() {
         return usuario;
     }
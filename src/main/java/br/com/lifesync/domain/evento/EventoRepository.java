@@ -1,12 +1,110 @@
 package br.com.lifesync.domain.evento;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.compromisso.CompromissoAlteradoDTO;
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.compromisso.CompromissoRecorrenteDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 //Repositório para interagir com banco de dados de eventos
 public interface EventoRepository extends JpaRepository <Evento, Long>{
-    List<Evento> findByUsuarioAndAtivoTrue(Usuario usuario);
-}
\ No newline at end of file
+    //Busca um evento pelo ID apenas se pertencer ao usuário informado
+    Optional<Evento> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    //Verifica se o evento existe e pertence ao usuário informado, sem carregá-lo
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    //Percorre os eventos ativos do usuário, exceto as séries recorrentes, na ordem (data, hora, id), lendo as linhas do banco em lotes
+    //(com useCursorFetch=true no MySQL) em vez de carregar o resultado inteiro em memória.
+    //Seleciona apenas as colunas da agenda direto no DTO, sem criar entidades nem carregar o usuário
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoDTO(e.id, e.titulo, e.data, e.hora, 'evento')
+            FROM Evento e
+            WHERE e.usuario.id = :usuarioId AND e.ativo = true AND e.recorrencia IS NULL
+            ORDER BY e.data, e.hora, e.id
+            """)
+    Stream<CompromissoDTO> buscarAtivosOrdenadosDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    //Busca os eventos ativos do usuário, exceto as séries recorrentes, posteriores à posição (data, hora, id) informada, até a data limite
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoDTO(e.id, e.titulo, e.data, e.hora, 'evento')
+            FROM Evento e
+            WHERE e.usuario.id = :usuarioId AND e.ativo = true AND e.recorrencia IS NULL
+            AND e.data >= :de AND e.data <= :ate
+            AND (e.data > :data OR (e.data = :data AND (e.hora > :hora OR (e.hora = :hora AND e.id > :id))))
+            ORDER BY e.data, e.hora, e.id
+            """)
+    List<CompromissoDTO> buscarPaginaDoUsuario(@Param("usuarioId") Long usuarioId, @Param("de") LocalDate de, @Param("ate") LocalDate ate,
+                                                @Param("data") LocalDate data, @Param("hora") LocalTime hora, @Param("id") Long id,
+                                                Pageable pagina);
+
+    //Busca as séries recorrentes ativas do usuário que começam até a data informada, com as ocorrências canceladas.
+    //As ocorrências são calculadas pelo serviço, apenas no período consultado
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoRecorrenteDTO(e.id, e.titulo, e.data, e.hora, 'evento', e.recorrencia, e.excecoes)
+            FROM Evento e
+            WHERE e.usuario.id = :usuarioId AND e.ativo = true AND e.recorrencia IS NOT NULL AND e.data <= :ate
+            ORDER BY e.id
+            """)
+    List<CompromissoRecorrenteDTO> buscarSeriesAtivasDoUsuario(@Param("usuarioId") Long usuarioId, @Param("ate") LocalDate ate);
+
+    //Busca os eventos do usuário alterados a partir do momento informado, para a sincronização incremental.
+    //Situações aceitas: apenas ativos (true) na sincronização completa, em que exclusões não interessam, ou ambas
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoAlteradoDTO(e.id, e.titulo, e.data, e.hora, 'evento', e.concluida, e.ativo, e.versao,
+                    e.recorrencia, e.excecoes)
+            FROM Evento e
+            WHERE e.usuario.id = :usuarioId AND e.atualizadoEm >= :desde AND e.ativo IN :situacoes
+            ORDER BY e.atualizadoEm, e.id
+            """)
+    List<CompromissoAlteradoDTO> buscarAlteradosDoUsuario(@Param("usuarioId") Long usuarioId, @Param("desde") Instant desde,
+                                                          @Param("situacoes") Collection<Boolean> situacoes);
+
+    //Os métodos abaixo alteram o evento com um único UPDATE, restrito ao dono, sem lê-lo antes.
+    //Também registram o momento da alteração, usado pela sincronização incremental, e incrementam a versão.
+    //Devolvem a quantidade de linhas encontradas: zero indica que o evento não existe ou é de outro usuário
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Evento e SET e.ativo = false, e.atualizadoEm = :agora, e.versao = e.versao + 1 WHERE e.id = :id AND e.usuario.id = :usuarioId")
+    int desativarDoUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("agora") Instant agora);
+
+    //Campos nulos mantêm o valor atual
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Evento e
+            SET e.titulo = COALESCE(:titulo, e.titulo), e.data = COALESCE(:data, e.data), e.hora = COALESCE(:hora, e.hora),
+                e.local = COALESCE(:local, e.local), e.atualizadoEm = :agora, e.versao = e.versao + 1
+            WHERE e.id = :id AND e.usuario.id = :usuarioId
+            """)
+    int editarDoUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("titulo") String titulo,
+                        @Param("data") LocalDate data, @Param("hora") LocalTime hora, @Param("local") String local,
+                        @Param("agora") Instant agora);
+
+    //Edição condicional: só altera o evento se ele ainda estiver em uma das versões informadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Evento e
+            SET e.titulo = COALESCE(:titulo, e.titulo), e.data = COALESCE(:data, e.data), e.hora = COALESCE(:hora, e.hora),
+                e.local = COALESCE(:local, e.local), e.atualizadoEm = :agora, e.versao = e.versao + 1
+            WHERE e.id = :id AND e.usuario.id = :usuarioId AND e.versao IN :versoes
+            """)
+    int editarDoUsuarioNaVersao(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("versoes") Collection<Long> versoes,
+                                @Param("titulo") String titulo, @Param("data") LocalDate data, @Param("hora") LocalTime hora,
+                                @Param("local") String local, @Param("agora") Instant agora);
+}
@@ -1,16 +1,28 @@
 package br.com.lifesync.domain.evento;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.lifesync.domain.VersaoDivergenteException;
+import br.com.lifesync.domain.compromisso.AgendaAlteradaEvent;
+import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 // Classe de serviço responsável pela lógica de negócios relacionada aos eventos
 @Service
 public class EventoService {
 
+    // Quantidade máxima de itens aceita em um cadastro em lote
+    public static final int TAMANHO_MAXIMO_LOTE = 500;
+
     // Injeção de dependência do repositório de eventos
     @Autowired
     private EventoRepository eventoRepository;
@@ -19,37 +31,96 @@ public class EventoService {
     @Autowired
     private UsuarioService usuarioService;
 
+    // Injeção de dependência do publicador de eventos, usado para avisar que a agenda do usuário mudou
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
     // Método para adicionar um novo evento com base nos dados recebidos no DTO
     @Transactional
     public void adicionarEvento(CadastroEventoDTO dto) {
+        Usuario usuario = usuarioService.obterUsuarioLogado();
         Evento evento = new Evento(dto);
-        evento.setUsuario(usuarioService.obterUsuarioLogado());
+        evento.setUsuario(usuario);
         eventoRepository.save(evento);
+        agendaAlterada(usuario.getId());
     }
 
-    // Método para obter um evento pelo seu ID
+    // Método para adicionar novos eventos de uma vez, em uma única transação; as inserções são agrupadas em lotes JDBC
+    @Transactional
+    public void adicionarEventos(List<CadastroEventoDTO> dtos) {
+        Usuario usuario = usuarioService.obterUsuarioLogado();
+        List<Evento> eventos = new ArrayList<>(dtos.size());
+        for (CadastroEventoDTO dto : dtos) {
+            Evento evento = new Evento(dto);
+            evento.setUsuario(usuario);
+            eventos.add(evento);
+        }
+        eventoRepository.saveAll(eventos);
+        agendaAlterada(usuario.getId());
+    }
+
+    // Método para obter um evento do usuário logado pelo seu ID
+    @Transactional(readOnly = true)
     public Optional<Evento> obterEvento(Long id) {
-        return eventoRepository.findById(id);
+        return eventoRepository.findByIdAndUsuarioId(id, idDoUsuarioLogado());
     }
 
-    // Método para editar um evento existente pelo seu ID
+    // Método para editar um evento existente do usuário logado pelo seu ID; retorna falso se ele não for encontrado.
+    // Com versões esperadas (If-Match), a edição só é aplicada se o evento ainda estiver em uma delas, sem bloquear
+    // a linha; caso contrário lança VersaoDivergenteException. Sem versões (null), edita incondicionalmente
     @Transactional
-    public void editarEvento(Long id, EdicaoEventoDTO dto) {
-        Optional<Evento> optionalEvento = eventoRepository.findById(id);
-        if (optionalEvento.isPresent()) {
-            Evento evento = optionalEvento.get();
-            evento.atualizarInformacoes(dto);
-            eventoRepository.save(evento);
+    public boolean editarEvento(Long id, EdicaoEventoDTO dto, List<Long> versoesEsperadas) {
+        LocalDate data = dto.data() != null ? LocalDate.parse(dto.data()) : null;
+        LocalTime hora = dto.hora() != null ? LocalTime.parse(dto.hora()) : null;
+        Long usuarioId = idDoUsuarioLogado();
+        if (versoesEsperadas == null) {
+            return alterou(usuarioId, eventoRepository.editarDoUsuario(id, usuarioId, dto.titulo(), data, hora, dto.local(), Instant.now()));
         }
+        int linhas = versoesEsperadas.isEmpty() ? 0 : eventoRepository.editarDoUsuarioNaVersao(id, usuarioId, versoesEsperadas,
+                dto.titulo(), data, hora, dto.local(), Instant.now());
+        // Nenhuma linha alterada: o evento não existe ou está em outra versão
+        if (linhas == 0 && eventoRepository.existsByIdAndUsuarioId(id, usuarioId)) {
+            throw new VersaoDivergenteException();
+        }
+        return alterou(usuarioId, linhas);
+    }
+
+    // Método para excluir (desativar) um evento do usuário logado pelo seu ID; retorna falso se ele não for encontrado
+    @Transactional
+    public boolean excluirEvento(Long id) {
+        Long usuarioId = idDoUsuarioLogado();
+        return alterou(usuarioId, eventoRepository.desativarDoUsuario(id, usuarioId, Instant.now()));
     }
 
-    // Método para excluir um evento pelo seu ID
+    // Método para cancelar uma única ocorrência de um evento recorrente do usuário logado, sem alterar as demais;
+    // retorna falso se o evento não for encontrado ou se a data não for uma ocorrência dele.
+    // A alteração é gravada pela entidade, com a verificação de versão do Hibernate
     @Transactional
-    public void excluirEvento(Long id) {
-        Optional<Evento> optionalEvento = eventoRepository.findById(id);
-        if (optionalEvento.isPresent()) {
-            Evento evento = optionalEvento.get();
-            evento.desativar();
+    public boolean cancelarOcorrencia(Long id, LocalDate data) {
+        Long usuarioId = idDoUsuarioLogado();
+        Optional<Evento> evento = eventoRepository.findByIdAndUsuarioId(id, usuarioId);
+        if (evento.isEmpty() || !evento.get().isAtivo() || !evento.get().cancelarOcorrencia(data)) {
+            return false;
         }
+        agendaAlterada(usuarioId);
+        return true;
+    }
+
+    // Avisa que a agenda do usuário mudou; a versão dela é incrementada nesta mesma transação
+    private void agendaAlterada(Long usuarioId) {
+        eventos.publishEvent(new AgendaAlteradaEvent(usuarioId));
+    }
+
+    // Indica se alguma linha foi alterada e, nesse caso, avisa que a agenda do usuário mudou
+    private boolean alterou(Long usuarioId, int linhasAlteradas) {
+        if (linhasAlteradas == 0) {
+            return false;
+        }
+        agendaAlterada(usuarioId);
+        return true;
+    }
+
+    private Long idDoUsuarioLogado() {
+        return usuarioService.obterUsuarioLogado().getId();
     }
 }
@@ -2,6 +2,7 @@ package br.com.lifesync.domain.tarefa;
 
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 //Representa um objeto de transferência de dados para o cadastro de uma tarefa
 public record CadastroTarefaDTO(
@@ -12,4 +13,13 @@ public record CadastroTarefaDTO(
     String data,
     @NotBlank(message = "A hora é obrigatória")
     @Pattern(regexp = "\\d{2}:\\d{2}", message = "A hora deve estar no formato HH:mm")
-    String hora) {}
+    String hora,
+    // Regra de recorrência opcional (subconjunto do RRULE, ex.: FREQ=WEEKLY;BYDAY=MO), validada no cadastro
+    @Size(max = 255, message = "A recorrência deve ter no máximo 255 caracteres")
+    String recorrencia) {
+
+    // Cadastro de um compromisso único, sem recorrência
+    public CadastroTarefaDTO(String titulo, String data, String hora) {
+        this(titulo, data, hora, null);
+    }
+}
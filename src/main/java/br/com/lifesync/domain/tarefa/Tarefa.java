@@ -1,30 +1,67 @@
 package br.com.lifesync.domain.tarefa;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import br.com.lifesync.domain.compromisso.Compromisso;
+import br.com.lifesync.domain.compromisso.ListaDeDatasConverter;
+import br.com.lifesync.domain.compromisso.RegraDeRecorrencia;
 import br.com.lifesync.domain.usuario.Usuario;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.validation.Valid;
 
 //Entidade que representa uma tarefa
 @Entity
-@Table(name = "tarefas")
+// Índice alinhado às consultas da agenda: filtra por usuário, situação e recorrência e já entrega os compromissos avulsos
+// na ordem (data, hora, id); também localiza as séries recorrentes do usuário sem percorrer os avulsos
+// O segundo índice atende a sincronização incremental, que busca as alterações do usuário a partir de um momento
+@Table(name = "tarefas", indexes = {
+        @Index(name = "idx_tarefas_usuario_ativa_recorrencia_agenda", columnList = "usuario_id, ativa, recorrencia, data, hora, id"),
+        @Index(name = "idx_tarefas_usuario_atualizacao", columnList = "usuario_id, atualizado_em")
+})
 public class Tarefa extends Compromisso {
+    // Ids reservados em blocos de 50, para que as inserções em lote possam ser agrupadas pelo JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tarefas_seq")
+    @SequenceGenerator(name = "tarefas_seq", sequenceName = "tarefas_seq", allocationSize = 50)
     private Long id;
     private String titulo;
     private LocalDate data;
     private LocalTime hora;
     private boolean ativa;
     private boolean concluida;
-    @ManyToOne
+    // Regra de recorrência (RegraDeRecorrencia) quando a tarefa é uma série; a data é a da primeira ocorrência
+    private String recorrencia;
+    // Datas das ocorrências canceladas da série
+    @Convert(converter = ListaDeDatasConverter.class)
+    @Column(columnDefinition = "text")
+    private List<LocalDate> excecoes = List.of();
+    // Preenchido pelo Hibernate ao inserir e ao alterar a entidade; os UPDATEs do repositório o atualizam explicitamente
+    @JsonIgnore
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+    // Incrementada a cada alteração (pelo Hibernate ou pelos UPDATEs do repositório); exposta como ETag
+    @JsonIgnore
+    @Version
+    private Long versao;
+    // Carregado apenas quando acessado; não é serializado junto com o compromisso
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     private Usuario usuario;
     
     // Construtor
@@ -36,6 +73,7 @@ public class Tarefa extends Compromisso {
         this.hora = LocalTime.parse(dto.hora());
         this.ativa = true;
         this.concluida = false;
+        this.recorrencia = RegraDeRecorrencia.normalizar(dto.recorrencia());
     }
 
     // Getters e Setters
@@ -92,6 +130,37 @@ public class Tarefa extends Compromisso {
     public boolean isConcluida() {
         return concluida;
     }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public String getRecorrencia() {
+        return recorrencia;
+    }
+
+    public List<LocalDate> getExcecoes() {
+        return excecoes != null ? excecoes : List.of();
+    }
+
+    //Cancela a ocorrência da série na data informada; retorna falso se a data não for uma ocorrência.
+    //A lista é substituída, e não alterada, para que o Hibernate perceba a mudança e incremente a versão
+    public boolean cancelarOcorrencia(LocalDate dataDaOcorrencia) {
+        if (recorrencia == null || !RegraDeRecorrencia.decodificar(recorrencia).ocorreEm(data, dataDaOcorrencia)) {
+            return false;
+        }
+        if (!getExcecoes().contains(dataDaOcorrencia)) {
+            List<LocalDate> canceladas = new ArrayList<>(getExcecoes());
+            canceladas.add(dataDaOcorrencia);
+            canceladas.sort(null);
+            this.excecoes = List.copyOf(canceladas);
+        }
+        return true;
+    }
     public Usuario getUsuario() {
         return usuario;
     }
@@ -1,11 +1,112 @@
 package br.com.lifesync.domain.tarefa;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.compromisso.CompromissoAlteradoDTO;
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.compromisso.CompromissoRecorrenteDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 //Repositório para interagir com banco de dados de tarefas
 public interface TarefaRepository extends JpaRepository <Tarefa, Long>{
-    List<Tarefa> findByUsuarioAndAtivaTrue(Usuario usuario);
+    //Busca uma tarefa pelo ID apenas se pertencer ao usuário informado
+    Optional<Tarefa> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    //Verifica se a tarefa existe e pertence ao usuário informado, sem carregá-la
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    //Percorre as tarefas ativas do usuário, exceto as séries recorrentes, na ordem (data, hora, id), lendo as linhas do banco em lotes
+    //(com useCursorFetch=true no MySQL) em vez de carregar o resultado inteiro em memória.
+    //Seleciona apenas as colunas da agenda direto no DTO, sem criar entidades nem carregar o usuário
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoDTO(t.id, t.titulo, t.data, t.hora, 'tarefa')
+            FROM Tarefa t
+            WHERE t.usuario.id = :usuarioId AND t.ativa = true AND t.recorrencia IS NULL
+            ORDER BY t.data, t.hora, t.id
+            """)
+    Stream<CompromissoDTO> buscarAtivasOrdenadasDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    //Busca as tarefas ativas do usuário, exceto as séries recorrentes, posteriores à posição (data, hora, id) informada, até a data limite
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoDTO(t.id, t.titulo, t.data, t.hora, 'tarefa')
+            FROM Tarefa t
+            WHERE t.usuario.id = :usuarioId AND t.ativa = true AND t.recorrencia IS NULL
+            AND t.data >= :de AND t.data <= :ate
+            AND (t.data > :data OR (t.data = :data AND (t.hora > :hora OR (t.hora = :hora AND t.id > :id))))
+            ORDER BY t.data, t.hora, t.id
+            """)
+    List<CompromissoDTO> buscarPaginaDoUsuario(@Param("usuarioId") Long usuarioId, @Param("de") LocalDate de, @Param("ate") LocalDate ate,
+                                                @Param("data") LocalDate data, @Param("hora") LocalTime hora, @Param("id") Long id,
+                                                Pageable pagina);
+
+    //Busca as séries recorrentes ativas do usuário que começam até a data informada, com as ocorrências canceladas.
+    //As ocorrências são calculadas pelo serviço, apenas no período consultado
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoRecorrenteDTO(t.id, t.titulo, t.data, t.hora, 'tarefa', t.recorrencia, t.excecoes)
+            FROM Tarefa t
+            WHERE t.usuario.id = :usuarioId AND t.ativa = true AND t.recorrencia IS NOT NULL AND t.data <= :ate
+            ORDER BY t.id
+            """)
+    List<CompromissoRecorrenteDTO> buscarSeriesAtivasDoUsuario(@Param("usuarioId") Long usuarioId, @Param("ate") LocalDate ate);
+
+    //Busca as tarefas do usuário alteradas a partir do momento informado, para a sincronização incremental.
+    //Situações aceitas: apenas ativas (true) na sincronização completa, em que exclusões não interessam, ou ambas
+    @Query("""
+            SELECT new br.com.lifesync.domain.compromisso.CompromissoAlteradoDTO(t.id, t.titulo, t.data, t.hora, 'tarefa', t.concluida, t.ativa, t.versao,
+                    t.recorrencia, t.excecoes)
+            FROM Tarefa t
+            WHERE t.usuario.id = :usuarioId AND t.atualizadoEm >= :desde AND t.ativa IN :situacoes
+            ORDER BY t.atualizadoEm, t.id
+            """)
+    List<CompromissoAlteradoDTO> buscarAlteradasDoUsuario(@Param("usuarioId") Long usuarioId, @Param("desde") Instant desde,
+                                                          @Param("situacoes") Collection<Boolean> situacoes);
+
+    //Os métodos abaixo alteram a tarefa com um único UPDATE, restrito ao dono, sem lê-la antes.
+    //Também registram o momento da alteração, usado pela sincronização incremental, e incrementam a versão.
+    //Devolvem a quantidade de linhas encontradas: zero indica que a tarefa não existe ou é de outro usuário
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Tarefa t SET t.concluida = true, t.atualizadoEm = :agora, t.versao = t.versao + 1 WHERE t.id = :id AND t.usuario.id = :usuarioId")
+    int concluirDoUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("agora") Instant agora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Tarefa t SET t.ativa = false, t.atualizadoEm = :agora, t.versao = t.versao + 1 WHERE t.id = :id AND t.usuario.id = :usuarioId")
+    int desativarDoUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("agora") Instant agora);
+
+    //Campos nulos mantêm o valor atual
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Tarefa t
+            SET t.titulo = COALESCE(:titulo, t.titulo), t.data = COALESCE(:data, t.data), t.hora = COALESCE(:hora, t.hora),
+                t.atualizadoEm = :agora, t.versao = t.versao + 1
+            WHERE t.id = :id AND t.usuario.id = :usuarioId
+            """)
+    int editarDoUsuario(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("titulo") String titulo,
+                        @Param("data") LocalDate data, @Param("hora") LocalTime hora, @Param("agora") Instant agora);
+
+    //Edição condicional: só altera a tarefa se ela ainda estiver em uma das versões informadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Tarefa t
+            SET t.titulo = COALESCE(:titulo, t.titulo), t.data = COALESCE(:data, t.data), t.hora = COALESCE(:hora, t.hora),
+                t.atualizadoEm = :agora, t.versao = t.versao + 1
+            WHERE t.id = :id AND t.usuario.id = :usuarioId AND t.versao IN :versoes
+            """)
+    int editarDoUsuarioNaVersao(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("versoes") Collection<Long> versoes,
+                                @Param("titulo") String titulo, @Param("data") LocalDate data, @Param("hora") LocalTime hora,
+                                @Param("agora") Instant agora);
 }
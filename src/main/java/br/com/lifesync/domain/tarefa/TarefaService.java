@@ -1,19 +1,31 @@
 package br.com.lifesync.domain.tarefa;
 
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.lifesync.domain.VersaoDivergenteException;
+import br.com.lifesync.domain.compromisso.AgendaAlteradaEvent;
+import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 // Classe de serviço responsável pela lógica de negócios relacionada às tarefas
 @Service
 public class TarefaService {
 
+    // Quantidade máxima de itens aceita em um cadastro em lote
+    public static final int TAMANHO_MAXIMO_LOTE = 500;
+
     // Injeção de dependência do repositório de tarefas
     @Autowired
     private TarefaRepository tarefaRepository;
@@ -22,47 +34,103 @@ public class TarefaService {
     @Autowired
     private UsuarioService usuarioService;
 
+    // Injeção de dependência do publicador de eventos, usado para avisar que a agenda do usuário mudou
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
     // Método para adicionar uma nova tarefa com base nos dados recebidos no DTO
     @Transactional
     public void adicionarTarefa(CadastroTarefaDTO dto) {
+        Usuario usuario = usuarioService.obterUsuarioLogado();
         Tarefa tarefa = new Tarefa(dto);
-        tarefa.setUsuario(usuarioService.obterUsuarioLogado());
+        tarefa.setUsuario(usuario);
         tarefaRepository.save(tarefa);
+        agendaAlterada(usuario.getId());
     }
 
-    // Método para obter uma tarefa pelo seu ID
+    // Método para adicionar novas tarefas de uma vez, em uma única transação; as inserções são agrupadas em lotes JDBC
+    @Transactional
+    public void adicionarTarefas(List<CadastroTarefaDTO> dtos) {
+        Usuario usuario = usuarioService.obterUsuarioLogado();
+        List<Tarefa> tarefas = new ArrayList<>(dtos.size());
+        for (CadastroTarefaDTO dto : dtos) {
+            Tarefa tarefa = new Tarefa(dto);
+            tarefa.setUsuario(usuario);
+            tarefas.add(tarefa);
+        }
+        tarefaRepository.saveAll(tarefas);
+        agendaAlterada(usuario.getId());
+    }
+
+    // Método para obter uma tarefa do usuário logado pelo seu ID
+    @Transactional(readOnly = true)
     public Optional<Tarefa> obterTarefa(Long id) {
-        return tarefaRepository.findById(id);
+        return tarefaRepository.findByIdAndUsuarioId(id, idDoUsuarioLogado());
     }
 
-    // Método para editar uma tarefa existente pelo seu ID
+    // Método para editar uma tarefa existente do usuário logado pelo seu ID; retorna falso se ela não for encontrada.
+    // Com versões esperadas (If-Match), a edição só é aplicada se a tarefa ainda estiver em uma delas, sem bloquear
+    // a linha; caso contrário lança VersaoDivergenteException. Sem versões (null), edita incondicionalmente
     @Transactional
-    public void editarTarefa(Long id, @Valid EdicaoTarefaDTO dto) {
-        Optional<Tarefa> optionalTarefa = tarefaRepository.findById(id);
-        if (optionalTarefa.isPresent()) {
-            Tarefa tarefa = optionalTarefa.get();
-            tarefa.atualizarInformacoes(dto);
-            tarefaRepository.save(tarefa);
+    public boolean editarTarefa(Long id, @Valid EdicaoTarefaDTO dto, List<Long> versoesEsperadas) {
+        LocalDate data = dto.data() != null ? LocalDate.parse(dto.data()) : null;
+        LocalTime hora = dto.hora() != null ? LocalTime.parse(dto.hora()) : null;
+        Long usuarioId = idDoUsuarioLogado();
+        if (versoesEsperadas == null) {
+            return alterou(usuarioId, tarefaRepository.editarDoUsuario(id, usuarioId, dto.titulo(), data, hora, Instant.now()));
         }
+        int linhas = versoesEsperadas.isEmpty() ? 0 : tarefaRepository.editarDoUsuarioNaVersao(id, usuarioId, versoesEsperadas,
+                dto.titulo(), data, hora, Instant.now());
+        // Nenhuma linha alterada: a tarefa não existe ou está em outra versão
+        if (linhas == 0 && tarefaRepository.existsByIdAndUsuarioId(id, usuarioId)) {
+            throw new VersaoDivergenteException();
+        }
+        return alterou(usuarioId, linhas);
     }
 
-    // Método para excluir uma tarefa pelo seu ID
+    // Método para excluir (desativar) uma tarefa do usuário logado pelo seu ID; retorna falso se ela não for encontrada
     @Transactional
-    public void excluirTarefa(Long id) {
-        Optional<Tarefa> optionalTarefa = tarefaRepository.findById(id);
-        if (optionalTarefa.isPresent()) {
-            Tarefa tarefa = optionalTarefa.get();
-            tarefa.desativar();
+    public boolean excluirTarefa(Long id) {
+        Long usuarioId = idDoUsuarioLogado();
+        return alterou(usuarioId, tarefaRepository.desativarDoUsuario(id, usuarioId, Instant.now()));
+    }
+
+    // Método para cancelar uma única ocorrência de uma tarefa recorrente do usuário logado, sem alterar as demais;
+    // retorna falso se a tarefa não for encontrada ou se a data não for uma ocorrência dela.
+    // A alteração é gravada pela entidade, com a verificação de versão do Hibernate
+    @Transactional
+    public boolean cancelarOcorrencia(Long id, LocalDate data) {
+        Long usuarioId = idDoUsuarioLogado();
+        Optional<Tarefa> tarefa = tarefaRepository.findByIdAndUsuarioId(id, usuarioId);
+        if (tarefa.isEmpty() || !tarefa.get().isAtiva() || !tarefa.get().cancelarOcorrencia(data)) {
+            return false;
         }
+        agendaAlterada(usuarioId);
+        return true;
     }
 
-    // Método para marcar uma tarefa como concluída pelo seu ID
+    // Método para marcar uma tarefa do usuário logado como concluída pelo seu ID; retorna falso se ela não for encontrada
     @Transactional
-    public void marcarTarefaComoConcluida(Long id) {
-        Optional<Tarefa> optionalTarefa = tarefaRepository.findById(id);
-        if (optionalTarefa.isPresent()) {
-            Tarefa tarefa = optionalTarefa.get();
-            tarefa.concluir();
+    public boolean marcarTarefaComoConcluida(Long id) {
+        Long usuarioId = idDoUsuarioLogado();
+        return alterou(usuarioId, tarefaRepository.concluirDoUsuario(id, usuarioId, Instant.now()));
+    }
+
+    // Avisa que a agenda do usuário mudou; a versão dela é incrementada nesta mesma transação
+    private void agendaAlterada(Long usuarioId) {
+        eventos.publishEvent(new AgendaAlteradaEvent(usuarioId));
+    }
+
+    // Indica se alguma linha foi alterada e, nesse caso, avisa que a agenda do usuário mudou
+    private boolean alterou(Long usuarioId, int linhasAlteradas) {
+        if (linhasAlteradas == 0) {
+            return false;
         }
+        agendaAlterada(usuarioId);
+        return true;
+    }
+
+    private Long idDoUsuarioLogado() {
+        return usuarioService.obterUsuarioLogado().getId();
     }
-}
\ No newline at end of file
+}
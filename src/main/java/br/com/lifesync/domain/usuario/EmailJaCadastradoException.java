@@ -0,0 +1,10 @@
+package br.com.lifesync.domain.usuario;
+
+//Exceção lançada quando o cadastro de um usuário é barrado pela restrição de email único do banco,
+//como em dois cadastros simultâneos com o mesmo email
+public class EmailJaCadastradoException extends RuntimeException {
+
+    public EmailJaCadastradoException() {
+        super("Já existe um usuário cadastrado com este email");
+    }
+}
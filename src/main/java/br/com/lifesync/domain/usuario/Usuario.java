@@ -1,10 +1,12 @@
 package br.com.lifesync.domain.usuario;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,7 +16,9 @@ import java.util.List;
 
 //Entidade que representa um usuário
 @Entity
-@Table(name = "usuarios")
+// O e-mail identifica o usuário no login e no token, e a restrição única também serve de índice para findByEmail
+@Table(name = "usuarios", uniqueConstraints = @UniqueConstraint(name = "uk_usuarios_email", columnNames = "email"))
+@EntityListeners(UsuarioCacheListener.class)
 public class Usuario implements UserDetails {
 
     @Id
@@ -86,6 +90,10 @@ public class Usuario implements UserDetails {
         return true;
     }
 
+    public void setSenha(String senha) {
+        this.senha = senha;
+    }
+
     public void setEmail(String email) {
         this.email = email;
     }
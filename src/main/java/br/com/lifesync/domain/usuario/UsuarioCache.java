@@ -0,0 +1,81 @@
+package br.com.lifesync.domain.usuario;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Cache em memória dos usuários autenticados, indexado pelo email (subject do token JWT).
+// Um índice do id para o email com que o usuário foi armazenado permite invalidá-lo pelo id, sem percorrer o cache,
+// quando o email muda; as entradas do índice saem junto com as do cache
+@Component
+public class UsuarioCache implements MeterBinder {
+
+    private final Cache<String, Usuario> cache;
+
+    private final ConcurrentMap<Long, String> emailsPorId = new ConcurrentHashMap<>();
+
+    public UsuarioCache(@Value("${app.cache.usuario.ttl:5m}") Duration ttl,
+                        @Value("${app.cache.usuario.tamanho-maximo:10000}") long tamanhoMaximo) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(tamanhoMaximo)
+                .evictionListener((String email, Usuario usuario, RemovalCause causa) -> {
+                    if (usuario != null) {
+                        emailsPorId.remove(usuario.getId(), email);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Método para buscar um usuário no cache, carregando-o com a função informada em caso de falha.
+    // Usuários inexistentes (carregador retornando null) não são armazenados.
+    public Usuario buscar(String email, Function<String, Usuario> carregador) {
+        return cache.get(email, chave -> {
+            Usuario usuario = carregador.apply(chave);
+            if (usuario != null && usuario.getId() != null) {
+                emailsPorId.put(usuario.getId(), chave);
+            }
+            return usuario;
+        });
+    }
+
+    // Método para remover do cache as entradas do usuário, tanto pelo email atual quanto pelo email com que ele foi
+    // armazenado (cobre o caso de troca de email, em que a chave antiga ainda aponta para o usuário)
+    public void invalidar(Usuario usuario) {
+        cache.invalidate(usuario.getEmail());
+        if (usuario.getId() != null) {
+            String emailArmazenado = emailsPorId.remove(usuario.getId());
+            if (emailArmazenado != null) {
+                cache.invalidate(emailArmazenado);
+            }
+        }
+    }
+
+    // Quantidade de buscas atendidas pelo cache
+    public long getAcertos() {
+        return cache.stats().hitCount();
+    }
+
+    // Quantidade de buscas que precisaram consultar o banco
+    public long getFalhas() {
+        return cache.stats().missCount();
+    }
+
+    // Publica as estatísticas do cache (acertos, falhas, remoções e tamanho) como métricas
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "usuarios");
+    }
+}
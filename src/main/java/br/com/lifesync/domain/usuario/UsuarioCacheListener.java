@@ -0,0 +1,23 @@
+package br.com.lifesync.domain.usuario;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+// Listener JPA que mantém o cache de usuários coerente com as alterações feitas no banco.
+// Inclusões não são tratadas: um usuário recém-cadastrado ainda não pode estar no cache, que não guarda ausências
+@Component
+public class UsuarioCacheListener {
+
+    private final UsuarioCache cache;
+
+    public UsuarioCacheListener(UsuarioCache cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidarCache(Usuario usuario) {
+        cache.invalidar(usuario);
+    }
+}
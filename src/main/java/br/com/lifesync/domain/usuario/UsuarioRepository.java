@@ -1,8 +1,25 @@
 package br.com.lifesync.domain.usuario;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 //Repositório para interagir com banco de dados de usuários
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Usuario findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    //Versão da agenda do usuário, lida pela chave primária, sem carregar a entidade
+    @Query(value = "select versao_agenda from usuarios where id = :id", nativeQuery = true)
+    Long buscarVersaoDaAgenda(@Param("id") Long id);
+
+    //Incrementa a versão da agenda na transação da alteração; a linha do usuário fica bloqueada até o commit,
+    //o que ordena as alterações concorrentes da mesma agenda
+    @Modifying
+    @Transactional
+    @Query(value = "update usuarios set versao_agenda = versao_agenda + 1 where id = :id", nativeQuery = true)
+    int incrementarVersaoDaAgenda(@Param("id") Long id);
 }
@@ -1,35 +1,81 @@
 package br.com.lifesync.domain.usuario;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 // Classe de serviço responsável pela lógica de negócios relacionada aos usuários
 @Service
-public class UsuarioService implements UserDetailsService {
+public class UsuarioService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final String RESTRICAO_EMAIL_UNICO = "uk_usuarios_email";
 
     // Injeção de dependência do repositório de usuários
     @Autowired
     private UsuarioRepository repository;
 
+    // Injeção de dependência do cache de usuários autenticados
+    @Autowired
+    private UsuarioCache cache;
+
     //Método para carregar um usuário pelo seu email
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return this.repository.findByEmail(email);
     }
 
-    //Método para salvar um usuário
+    //Método para verificar se já existe um usuário com o email informado, sem carregá-lo
+    public boolean existeUsuarioComEmail(String email) {
+        return this.repository.existsByEmail(email);
+    }
+
+    //Método para buscar um usuário pelo seu email, consultando o cache antes do banco
+    public Usuario buscarPorEmail(String email) {
+        return this.cache.buscar(email, this.repository::findByEmail);
+    }
+
+    //Método chamado pelo Spring Security após um login bem-sucedido, quando a senha foi criptografada
+    //com um custo diferente do configurado, para gravar a senha recriptografada
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = this.repository.findByEmail(user.getUsername());
+        usuario.setSenha(newPassword);
+        return this.repository.save(usuario);
+    }
+
+    //Método para salvar um usuário. Um email já cadastrado resulta em EmailJaCadastradoException;
+    //as demais violações de restrição do banco são propagadas sem alteração
     public void salvarUsuario(Usuario usuario){
-        this.repository.save(usuario);
+        try {
+            this.repository.save(usuario);
+        } catch (DataIntegrityViolationException ex) {
+            if (violaEmailUnico(ex)) {
+                throw new EmailJaCadastradoException();
+            }
+            throw ex;
+        }
+    }
+
+    //O nome da restrição é o extraído pelo Hibernate ou, quando o dialeto não o identifica, o citado na mensagem
+    //do driver; varia com o banco (no MySQL, "usuarios.uk_usuarios_email"; no H2, com o sufixo do índice)
+    private static boolean violaEmailUnico(DataIntegrityViolationException ex) {
+        if (!(ex.getCause() instanceof ConstraintViolationException violacao)) {
+            return false;
+        }
+        String restricao = violacao.getConstraintName() != null ? violacao.getConstraintName() : violacao.getSQLException().getMessage();
+        return restricao != null && restricao.toLowerCase().contains(RESTRICAO_EMAIL_UNICO);
     }
 
     //Método para obter o usuário logado
     public Usuario obterUsuarioLogado() {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
-        return (Usuario) this.loadUserByUsername(username);
+        return this.buscarPorEmail(username);
     }
-}
\ No newline at end of file
+}
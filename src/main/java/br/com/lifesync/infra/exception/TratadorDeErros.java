@@ -0,0 +1,50 @@
+package br.com.lifesync.infra.exception;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import br.com.lifesync.domain.ValidacaoException;
+import br.com.lifesync.domain.VersaoDivergenteException;
+import br.com.lifesync.domain.usuario.EmailJaCadastradoException;
+
+import java.util.concurrent.RejectedExecutionException;
+
+//Converte as exceções lançadas pelos controladores em respostas HTTP
+@RestControllerAdvice
+public class TratadorDeErros {
+
+    @ExceptionHandler(ValidacaoException.class)
+    public ResponseEntity<String> tratarErroDeValidacao(ValidacaoException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    //Email já cadastrado por uma requisição simultânea; as demais violações de restrição do banco
+    //seguem o tratamento padrão
+    @ExceptionHandler(EmailJaCadastradoException.class)
+    public ResponseEntity<Void> tratarConflito() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    //Alteração condicional (If-Match) de um registro que mudou desde a versão lida pelo cliente
+    @ExceptionHandler(VersaoDivergenteException.class)
+    public ResponseEntity<Void> tratarVersaoDivergente() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    //Alteração sem If-Match (como o cancelamento de uma ocorrência) concorrente com outra no mesmo registro:
+    //não houve pré-condição do cliente, então o conflito é informado como tal
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> tratarAlteracaoConcorrente() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    //Um pool de processamento (como o de criptografia de senhas) está cheio: o cliente deve tentar novamente
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> tratarSobrecarga() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.lifesync.infra.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+// Conta os comandos SQL preparados pelo Hibernate na thread corrente, enquanto houver uma contagem aberta.
+// É instanciado pelo próprio Hibernate (propriedade hibernate.session_factory.statement_inspector), por isso
+// a contagem fica em um ThreadLocal, aberta e encerrada pelo OrcamentoDeConsultasFilter a cada requisição.
+// As etapas assíncronas de uma requisição entram na mesma contagem quando executadas pelo executor de propagar().
+public class ContadorDeConsultas implements StatementInspector {
+
+    private static final ThreadLocal<Contagem> CONTAGEM = new ThreadLocal<>();
+
+    // Listas de parâmetros de tamanhos diferentes, como em "in (?, ?, ?)", têm o mesmo formato
+    private static final Pattern LISTA_DE_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    // Método para abrir a contagem de comandos da thread corrente
+    public static Contagem iniciar() {
+        Contagem contagem = new Contagem();
+        CONTAGEM.set(contagem);
+        return contagem;
+    }
+
+    // Método para retomar na thread corrente uma contagem já aberta, como no despacho assíncrono da requisição
+    public static void retomar(Contagem contagem) {
+        CONTAGEM.set(contagem);
+    }
+
+    // Executor que soma à contagem aberta na thread corrente os comandos das tarefas que executar, em outras threads
+    public static Executor propagar(Executor executor) {
+        Contagem contagem = CONTAGEM.get();
+        if (contagem == null) {
+            return executor;
+        }
+        return tarefa -> executor.execute(() -> {
+            CONTAGEM.set(contagem);
+            try {
+                tarefa.run();
+            } finally {
+                CONTAGEM.remove();
+            }
+        });
+    }
+
+    // Método para encerrar a contagem da thread corrente; os comandos seguintes deixam de ser contados
+    public static void encerrar() {
+        CONTAGEM.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contagem contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem.registrar(LISTA_DE_PARAMETROS.matcher(sql).replaceAll("(?)"));
+        }
+        return sql;
+    }
+
+    // Sincronizada porque etapas assíncronas da requisição podem registrar comandos em outras threads
+    public static final class Contagem {
+
+        private int total;
+
+        private final Map<String, Integer> porFormato = new HashMap<>();
+
+        private synchronized void registrar(String formato) {
+            total++;
+            porFormato.merge(formato, 1, Integer::sum);
+        }
+
+        public synchronized int total() {
+            return total;
+        }
+
+        // Formatos de consulta executados ao menos o número de vezes informado, com a quantidade de execuções
+        public synchronized Map<String, Integer> repetidos(int vezes) {
+            Map<String, Integer> repetidos = new HashMap<>();
+            porFormato.forEach((formato, quantidade) -> {
+                if (quantidade >= vezes && formato.regionMatches(true, 0, "select", 0, 6)) {
+                    repetidos.put(formato, quantidade);
+                }
+            });
+            return repetidos;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.lifesync.infra.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Mede o tempo de cada método público dos serviços de domínio e do TokenService, com as tags
+// servico, operacao (nome do método), resultado (sucesso ou erro) e excecao.
+// As chamadas aos repositórios já são medidas pelo Spring Boot na métrica spring.data.repository.invocations.
+@Aspect
+@Component
+public class MetricasAspect {
+
+    public static final String METRICA = "lifesync.servicos";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("(within(br.com.lifesync.domain..*) && @within(org.springframework.stereotype.Service)"
+            + " || within(br.com.lifesync.infra.security.TokenService)) && execution(public * *(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String excecao = "nenhuma";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            excecao = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            amostra.stop(Timer.builder(METRICA)
+                    .description("Tempo de execução dos métodos dos serviços")
+                    .tag("servico", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("operacao", joinPoint.getSignature().getName())
+                    .tag("resultado", excecao.equals("nenhuma") ? "sucesso" : "erro")
+                    .tag("excecao", excecao)
+                    .register(meterRegistry));
+        }
+    }
+}
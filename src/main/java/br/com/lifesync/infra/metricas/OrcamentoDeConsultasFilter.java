@@ -0,0 +1,119 @@
+package br.com.lifesync.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Conta os comandos SQL de cada requisição, incluindo os do filtro de segurança, e publica a distribuição
+// por endpoint. Requisições que passam do orçamento de comandos ou repetem a mesma consulta (suspeita de N+1)
+// são registradas no log e contadas na métrica de alertas.
+// Em requisições assíncronas, a contagem fica em um atributo da requisição e é retomada no despacho assíncrono,
+// e a requisição só é avaliada ao final dele, somando os comandos das duas threads e das etapas intermediárias.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OrcamentoDeConsultasFilter extends OncePerRequestFilter {
+
+    public static final String METRICA = "lifesync.http.consultas";
+    public static final String METRICA_ALERTAS = "lifesync.http.consultas.alertas";
+
+    private static final String ATRIBUTO_CONTAGEM = OrcamentoDeConsultasFilter.class.getName() + ".contagem";
+
+    private static final Logger log = LoggerFactory.getLogger(OrcamentoDeConsultasFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final int orcamento;
+
+    private final int repeticoesSuspeitas;
+
+    public OrcamentoDeConsultasFilter(MeterRegistry meterRegistry,
+                                      @Value("${app.consultas.orcamento:10}") int orcamento,
+                                      @Value("${app.consultas.repeticoes-suspeitas:3}") int repeticoesSuspeitas) {
+        this.meterRegistry = meterRegistry;
+        this.orcamento = orcamento;
+        this.repeticoesSuspeitas = repeticoesSuspeitas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var contagem = (ContadorDeConsultas.Contagem) request.getAttribute(ATRIBUTO_CONTAGEM);
+        if (contagem == null) {
+            contagem = ContadorDeConsultas.iniciar();
+            request.setAttribute(ATRIBUTO_CONTAGEM, contagem);
+        } else {
+            ContadorDeConsultas.retomar(contagem);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorDeConsultas.encerrar();
+            if (!request.isAsyncStarted()) {
+                avaliar(request, contagem);
+            }
+        }
+    }
+
+    // O despacho assíncrono também passa pelo filtro, para que a requisição seja avaliada ao final dele
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void avaliar(HttpServletRequest request, ContadorDeConsultas.Contagem contagem) {
+        String metodo = request.getMethod();
+        String endpoint = endpoint(request);
+
+        DistributionSummary.builder(METRICA)
+                .description("Comandos SQL executados por requisição")
+                .baseUnit("comandos")
+                .tag("metodo", metodo)
+                .tag("uri", endpoint)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                .register(meterRegistry)
+                .record(contagem.total());
+
+        if (contagem.total() > orcamento) {
+            alertar("orcamento", metodo, endpoint);
+            log.warn("{} {} executou {} comandos SQL, acima do orçamento de {}", metodo, endpoint, contagem.total(), orcamento);
+        }
+
+        Map<String, Integer> repetidos = contagem.repetidos(repeticoesSuspeitas);
+        if (!repetidos.isEmpty()) {
+            alertar("repeticao", metodo, endpoint);
+            repetidos.forEach((sql, vezes) ->
+                    log.warn("{} {} repetiu {} vezes a consulta (possível N+1): {}", metodo, endpoint, vezes, sql));
+        }
+    }
+
+    private void alertar(String tipo, String metodo, String endpoint) {
+        Counter.builder(METRICA_ALERTAS)
+                .description("Requisições acima do orçamento de comandos SQL ou com consultas repetidas")
+                .tag("tipo", tipo)
+                .tag("metodo", metodo)
+                .tag("uri", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Padrão do endpoint atendido (por exemplo /tarefas/{id}), para que a métrica não tenha uma série por id
+    private static String endpoint(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return padrao != null ? padrao.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.lifesync.infra.security;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Endpoint do actuator (/actuator/chaves, restrito a administradores) para rotacionar as chaves de assinatura
+// dos tokens JWT sem reiniciar a aplicação. Os segredos nunca são devolvidos, apenas os kids
+@Component
+@Endpoint(id = "chaves")
+public class ChavesDeAssinaturaEndpoint {
+
+    private final TokenService tokenService;
+
+    public ChavesDeAssinaturaEndpoint(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    // GET: kid da chave atual e das chaves aceitas na verificação
+    @ReadOperation
+    public Map<String, Object> chaves() {
+        return Map.of("atual", tokenService.kidAtual(), "aceitas", new TreeSet<>(tokenService.kidsAceitos()));
+    }
+
+    // POST {"kid": ..., "secret": ...}: passa a assinar os novos tokens com a chave informada; os tokens já emitidos
+    // continuam válidos até a chave anterior ser removida
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> rotacionar(String kid, String secret) {
+        if (kid.isBlank() || secret.isBlank()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        tokenService.rotacionarChave(kid, secret);
+        return new WebEndpointResponse<>(chaves());
+    }
+
+    // DELETE /{kid}: deixa de aceitar os tokens assinados com a chave informada, que não pode ser a atual
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> remover(@Selector String kid) {
+        Set<String> aceitas = tokenService.kidsAceitos();
+        if (!aceitas.contains(kid)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (kid.equals(tokenService.kidAtual())) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        tokenService.removerChave(kid);
+        return new WebEndpointResponse<>(chaves());
+    }
+}
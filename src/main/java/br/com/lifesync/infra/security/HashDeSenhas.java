@@ -0,0 +1,57 @@
+package br.com.lifesync.infra.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Criptografa senhas em um pool de threads próprio e limitado, para que um pico de cadastros não ocupe as threads
+// que atendem as requisições. Quando o pool e a fila estão cheios, a tarefa é recusada com RejectedExecutionException.
+@Component
+public class HashDeSenhas implements MeterBinder, DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    public HashDeSenhas(PasswordEncoder passwordEncoder,
+                        @Value("${app.security.senha.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                        @Value("${app.security.senha.fila:100}") int fila) {
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "hash-de-senhas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Método para criptografar uma senha de forma assíncrona
+    public CompletableFuture<String> criptografar(String senha) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(senha), executor);
+    }
+
+    // Publica o tamanho da fila, as threads ativas e as tarefas concluídas do pool
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        ExecutorServiceMetrics.monitor(registry, executor, "hash-de-senhas");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.lifesync.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Limita as tentativas de login por email e por IP com uma janela deslizante, antes de qualquer verificação de senha.
+// Cada chave guarda apenas as contagens da janela atual e da anterior; a contagem da janela anterior é ponderada
+// pela fração dela que ainda está dentro da janela deslizante. As chaves ociosas são descartadas pelo cache,
+// que também limita a quantidade de chaves em memória.
+@Component
+public class LimitadorDeTentativas {
+
+    public static final String METRICA = "lifesync.login.recusados";
+
+    private final Cache<String, JanelaDeslizante> janelas;
+
+    private final long janela;
+
+    private final int tentativasPorEmail;
+
+    private final int tentativasPorIp;
+
+    private final LongSupplier relogio;
+
+    private final Counter recusadosPorEmail;
+
+    private final Counter recusadosPorIp;
+
+    @Autowired
+    public LimitadorDeTentativas(@Value("${app.security.login.janela:1m}") Duration janela,
+                                 @Value("${app.security.login.tentativas-por-email:5}") int tentativasPorEmail,
+                                 @Value("${app.security.login.tentativas-por-ip:20}") int tentativasPorIp,
+                                 @Value("${app.security.login.chaves-maximas:100000}") long chavesMaximas,
+                                 MeterRegistry meterRegistry) {
+        this(janela, tentativasPorEmail, tentativasPorIp, chavesMaximas, meterRegistry, System::nanoTime);
+    }
+
+    LimitadorDeTentativas(Duration janela, int tentativasPorEmail, int tentativasPorIp, long chavesMaximas,
+                          MeterRegistry meterRegistry, LongSupplier relogio) {
+        this.janela = janela.toNanos();
+        this.tentativasPorEmail = tentativasPorEmail;
+        this.tentativasPorIp = tentativasPorIp;
+        this.relogio = relogio;
+        // Depois de duas janelas sem tentativas, a chave não influencia mais a contagem
+        this.janelas = Caffeine.newBuilder()
+                .maximumSize(chavesMaximas)
+                .expireAfterAccess(janela.multipliedBy(2))
+                .ticker(relogio::getAsLong)
+                .build();
+        this.recusadosPorEmail = recusados(meterRegistry, "email");
+        this.recusadosPorIp = recusados(meterRegistry, "ip");
+    }
+
+    // Método para registrar uma tentativa de login; devolve false se o IP ou o email passaram do limite da janela
+    public boolean permitir(String email, String ip) {
+        long agora = relogio.getAsLong();
+        if (!tentar("ip:" + ip, tentativasPorIp, agora)) {
+            recusadosPorIp.increment();
+            return false;
+        }
+        if (!tentar("email:" + email.trim().toLowerCase(Locale.ROOT), tentativasPorEmail, agora)) {
+            recusadosPorEmail.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Tempo, em segundos, que o cliente deve esperar antes de tentar novamente
+    public long segundosParaNovaTentativa() {
+        return Math.max(1, Duration.ofNanos(janela).toSeconds());
+    }
+
+    private boolean tentar(String chave, int limite, long agora) {
+        return janelas.get(chave, c -> new JanelaDeslizante(agora)).tentar(agora, janela, limite);
+    }
+
+    private static Counter recusados(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder(METRICA)
+                .description("Tentativas de login recusadas por excesso de tentativas")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    // Contagens de uma chave, atualizadas sem bloqueio por compare-and-set
+    private static final class JanelaDeslizante {
+
+        private record Estado(long inicio, int anterior, int atual) {
+        }
+
+        private final AtomicReference<Estado> estado;
+
+        private JanelaDeslizante(long inicio) {
+            this.estado = new AtomicReference<>(new Estado(inicio, 0, 0));
+        }
+
+        private boolean tentar(long agora, long janela, int limite) {
+            while (true) {
+                Estado corrente = estado.get();
+                Estado avancado = avancar(corrente, agora, janela);
+                double pesoDaAnterior = 1.0 - (double) (agora - avancado.inicio()) / janela;
+                if (avancado.anterior() * pesoDaAnterior + avancado.atual() >= limite) {
+                    if (avancado != corrente) {
+                        estado.compareAndSet(corrente, avancado);
+                    }
+                    return false;
+                }
+                if (estado.compareAndSet(corrente, new Estado(avancado.inicio(), avancado.anterior(), avancado.atual() + 1))) {
+                    return true;
+                }
+            }
+        }
+
+        // Desloca a janela atual até a que contém o instante informado
+        private static Estado avancar(Estado estado, long agora, long janela) {
+            long janelasPassadas = (agora - estado.inicio()) / janela;
+            if (janelasPassadas <= 0) {
+                return estado;
+            }
+            int anterior = janelasPassadas == 1 ? estado.atual() : 0;
+            return new Estado(estado.inicio() + janelasPassadas * janela, anterior, 0);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.lifesync.infra.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// PasswordEncoder que mede o tempo de criptografia e de comparação de senhas do encoder delegado,
+// na métrica lifesync.senhas com a tag operacao (criptografar ou comparar)
+public class PasswordEncoderMedido implements PasswordEncoder {
+
+    public static final String METRICA = "lifesync.senhas";
+
+    private final PasswordEncoder delegado;
+
+    private final Timer criptografar;
+
+    private final Timer comparar;
+
+    public PasswordEncoderMedido(PasswordEncoder delegado, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.criptografar = timer(meterRegistry, "criptografar");
+        this.comparar = timer(meterRegistry, "comparar");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return criptografar.record(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return comparar.record(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    // Indica se a senha foi criptografada com um custo diferente do configurado e deve ser recriptografada
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operacao) {
+        return Timer.builder(METRICA)
+                .description("Tempo de criptografia e de comparação de senhas")
+                .tag("operacao", operacao)
+                .register(meterRegistry);
+    }
+}
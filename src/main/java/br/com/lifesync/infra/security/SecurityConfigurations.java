@@ -1,6 +1,9 @@
 package br.com.lifesync.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,15 +31,24 @@ public class SecurityConfigurations {
                 .authorizeHttpRequests(req -> {
                     req.requestMatchers("/login", "/login/**").permitAll();
                     req.requestMatchers("/signin", "/signin/**").permitAll();
+                    req.requestMatchers("/actuator/health").permitAll();
+                    // As métricas revelam o tráfego de cada endpoint, recusas de login e tamanhos de cache, e
+                    // /actuator/chaves troca as chaves dos tokens: apenas administradores (inclusive o token do
+                    // coletor do Prometheus) têm acesso
+                    req.requestMatchers("/actuator/**").hasRole("ADMIN");
+                    // O despacho que conclui uma resposta assíncrona (como o stream da agenda) não passa pelo
+                    // SecurityFilter; a requisição original já foi autorizada
+                    req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     req.anyRequest().authenticated();
                 })
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
+    // O custo do BCrypt é configurável; senhas criptografadas com outro custo são recriptografadas no próximo login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.senha.custo:10}") int custo, MeterRegistry meterRegistry) {
+        return new PasswordEncoderMedido(new BCryptPasswordEncoder(custo), meterRegistry);
     }
 
     @Bean
@@ -1,5 +1,7 @@
 package br.com.lifesync.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,33 +12,57 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import br.com.lifesync.domain.usuario.UsuarioRepository;
+import br.com.lifesync.domain.usuario.UsuarioService;
 
 import java.io.IOException;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final String METRICA = "lifesync.seguranca.autenticacao";
+
     @Autowired
     private TokenService tokenService;
 
     @Autowired
-    private UsuarioRepository repository;
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        var tokenJWT = recuperarToken(request);
+        var amostra = Timer.start(meterRegistry);
+        var resultado = "erro";
+        try {
+            resultado = autenticar(request);
+        } finally {
+            amostra.stop(Timer.builder(METRICA)
+                    .description("Tempo de autenticação da requisição pelo token JWT")
+                    .tag("resultado", resultado)
+                    .register(meterRegistry));
+        }
 
-        if (tokenJWT != null) {
-            var subject = tokenService.getSubject(tokenJWT);
-            var usuario = repository.findByEmail(subject);
+        filterChain.doFilter(request, response);
+    }
 
-            //autentica o usuario para o Spring:
-            var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+    //Autentica o usuário do token, se houver, e devolve o resultado usado como tag da métrica
+    private String autenticar(HttpServletRequest request) {
+        var tokenJWT = recuperarToken(request);
+        if (tokenJWT == null) {
+            return "sem_token";
         }
 
-        filterChain.doFilter(request, response);
+        var subject = tokenService.getSubject(tokenJWT);
+        var usuario = usuarioService.buscarPorEmail(subject);
+        if (usuario == null) {
+            return "usuario_nao_encontrado";
+        }
+
+        //autentica o usuario para o Spring:
+        var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return "autenticado";
     }
 
     private String recuperarToken(HttpServletRequest request) {
@@ -0,0 +1,128 @@
+package br.com.lifesync.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+// Cache dos tokens JWT já verificados, indexado pelo hash SHA-256 do token.
+// Cada entrada expira, no máximo, no instante do claim "exp" do token.
+@Component
+public class TokenCache implements MeterBinder {
+
+    // Estimativa do espaço ocupado por uma entrada (chave, valor e estruturas internas do cache), sem o subject
+    private static final int BYTES_POR_ENTRADA = 256;
+
+    // Limite de permanência no cache, mesmo para tokens com expiração mais distante
+    private static final Duration PERMANENCIA_MAXIMA = Duration.ofDays(1);
+
+    private final Cache<ChaveToken, TokenVerificado> cache;
+
+    public TokenCache(@Value("${app.security.token.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                      @Value("${app.security.token.cache.memoria-maxima:4MB}") DataSize memoriaMaxima) {
+        if (tamanhoMaximo <= 0 || memoriaMaxima.toBytes() <= 0) {
+            this.cache = null;
+            return;
+        }
+        // Nenhuma entrada pesa menos que memoriaMaxima / tamanhoMaximo, o que limita ao mesmo tempo
+        // a quantidade de entradas e a memória estimada
+        long pesoMinimo = Math.max(1, memoriaMaxima.toBytes() / tamanhoMaximo);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(memoriaMaxima.toBytes())
+                .weigher((ChaveToken chave, TokenVerificado token) ->
+                        (int) Math.min(Integer.MAX_VALUE, Math.max(pesoMinimo, BYTES_POR_ENTRADA + 2L * token.subject().length())))
+                .expireAfter(new ExpiracaoDoToken())
+                .recordStats()
+                .build();
+    }
+
+    // Método para obter o subject de um token, executando a verificação apenas se ele ainda não estiver no cache.
+    // Exceções lançadas pelo verificador são propagadas e o token inválido não é armazenado.
+    public String buscarSubject(String tokenJWT, Function<String, TokenVerificado> verificador) {
+        if (cache == null) {
+            return verificador.apply(tokenJWT).subject();
+        }
+        return cache.get(chave(tokenJWT), chave -> verificador.apply(tokenJWT)).subject();
+    }
+
+    // Publica as estatísticas do cache como métricas, quando ele está habilitado
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "tokens");
+        }
+    }
+
+    // Método para descartar todos os tokens verificados (por exemplo, após a remoção de uma chave de assinatura)
+    public void limpar() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    // Quantidade de verificações atendidas pelo cache
+    public long getAcertos() {
+        return cache != null ? cache.stats().hitCount() : 0;
+    }
+
+    // Quantidade de verificações que precisaram validar a assinatura do token
+    public long getFalhas() {
+        return cache != null ? cache.stats().missCount() : 0;
+    }
+
+    private static ChaveToken chave(String tokenJWT) {
+        try {
+            var hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(tokenJWT.getBytes(StandardCharsets.US_ASCII)));
+            return new ChaveToken(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 indisponível", exception);
+        }
+    }
+
+    // Resultado da verificação de um token; expiraEm nulo indica token sem claim "exp", que não é mantido no cache
+    public record TokenVerificado(String subject, Instant expiraEm) {
+    }
+
+    // Hash SHA-256 do token, guardado em quatro longs para ocupar pouco espaço e comparar rapidamente
+    private record ChaveToken(long parte1, long parte2, long parte3, long parte4) {
+    }
+
+    private static class ExpiracaoDoToken implements Expiry<ChaveToken, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(ChaveToken chave, TokenVerificado token, long currentTime) {
+            if (token.expiraEm() == null) {
+                return 0;
+            }
+            var restante = Duration.between(Instant.now(), token.expiraEm());
+            if (restante.isNegative()) {
+                return 0;
+            }
+            return restante.compareTo(PERMANENCIA_MAXIMA) < 0 ? restante.toNanos() : PERMANENCIA_MAXIMA.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ChaveToken chave, TokenVerificado token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ChaveToken chave, TokenVerificado token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.lifesync.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
@@ -13,45 +14,111 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
+//Gera e verifica os tokens JWT. Os tokens são assinados com a chave atual e identificados pelo "kid"; novas chaves
+//são adicionadas, e as antigas removidas, sem reiniciar a aplicação, pelo endpoint /actuator/chaves
+//(ChavesDeAssinaturaEndpoint). A rotação vale apenas para a instância que a recebe e até ela ser reiniciada
 @Service
 public class TokenService {
 
     private static final String ISSUER = "API ADOPET STORE";
 
-    @Value("${app.security.token.secret}")
-    private String secret;
+    // Kid assumido para tokens emitidos sem o cabeçalho "kid" (anteriores à rotação de chaves)
+    private final String kidPadrao;
+
+    // Chaves construídas uma única vez e substituídas atomicamente a cada rotação
+    private volatile Chaves chaves;
+
+    // Tokens já verificados, para evitar repetir a validação da assinatura a cada requisição
+    private final TokenCache tokenCache;
+
+    public TokenService(@Value("${app.security.token.secret}") String secret,
+                        @Value("${app.security.token.kid:principal}") String kid,
+                        TokenCache tokenCache) {
+        var algoritmo = Algorithm.HMAC256(secret);
+        this.tokenCache = tokenCache;
+        this.kidPadrao = kid;
+        this.chaves = new Chaves(kid, algoritmo, Map.of(kid, criarVerificador(algoritmo)));
+    }
 
     public String gerarToken(Usuario usuario) {
+        var chavesAtuais = this.chaves;
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer(ISSUER)
+                    .withKeyId(chavesAtuais.kidAtual())
                     .withSubject(usuario.getEmail())
                     .withClaim("nome", usuario.getNome())
                     .withExpiresAt(dataExpiracao())
-                    .sign(algoritmo);
+                    .sign(chavesAtuais.algoritmoAtual());
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao gerar token jwt", exception);
         }
     }
 
     public String getSubject(String tokenJWT) {
+        return tokenCache.buscarSubject(tokenJWT, this::verificar);
+    }
+
+    private TokenCache.TokenVerificado verificar(String tokenJWT) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer(ISSUER)
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            var tokenDecodificado = JWT.decode(tokenJWT);
+            var kid = tokenDecodificado.getKeyId() != null ? tokenDecodificado.getKeyId() : kidPadrao;
+            var verificador = this.chaves.verificadores().get(kid);
+            if (verificador == null) {
+                throw new JWTVerificationException("Chave de assinatura desconhecida: " + kid);
+            }
+            var tokenVerificado = verificador.verify(tokenDecodificado);
+            return new TokenCache.TokenVerificado(tokenVerificado.getSubject(), tokenVerificado.getExpiresAtAsInstant());
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Token JWT inválido ou expirado: " +tokenJWT);
         }
     }
 
+    // Passa a assinar os novos tokens com a chave informada, mantendo as anteriores
+    // válidas para verificação até que sejam removidas com removerChave
+    public synchronized void rotacionarChave(String kid, String secret) {
+        var algoritmo = Algorithm.HMAC256(secret);
+        var verificadores = new HashMap<>(this.chaves.verificadores());
+        verificadores.put(kid, criarVerificador(algoritmo));
+        this.chaves = new Chaves(kid, algoritmo, Map.copyOf(verificadores));
+    }
+
+    // Deixa de aceitar tokens assinados com a chave informada
+    public synchronized void removerChave(String kid) {
+        if (kid.equals(this.chaves.kidAtual())) {
+            throw new IllegalArgumentException("A chave atual de assinatura não pode ser removida");
+        }
+        var verificadores = new HashMap<>(this.chaves.verificadores());
+        verificadores.remove(kid);
+        this.chaves = new Chaves(this.chaves.kidAtual(), this.chaves.algoritmoAtual(), Map.copyOf(verificadores));
+        this.tokenCache.limpar();
+    }
+
+    // Kid da chave que assina os novos tokens
+    public String kidAtual() {
+        return this.chaves.kidAtual();
+    }
+
+    // Kids das chaves aceitas na verificação dos tokens
+    public Set<String> kidsAceitos() {
+        return this.chaves.verificadores().keySet();
+    }
+
+    private JWTVerifier criarVerificador(Algorithm algoritmo) {
+        return JWT.require(algoritmo)
+                .withIssuer(ISSUER)
+                .build();
+    }
+
     private Instant dataExpiracao() {
         return LocalDateTime.now().plusHours(8).toInstant(ZoneOffset.of("-03:00"));
     }
 
+    private record Chaves(String kidAtual, Algorithm algoritmoAtual, Map<String, JWTVerifier> verificadores) {
+    }
 
 }
@@ -0,0 +1,40 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update
+
+create table usuarios (
+    id bigint not null auto_increment,
+    nome varchar(255),
+    email varchar(255),
+    senha varchar(255),
+    role tinyint,
+    primary key (id),
+    constraint uk_usuarios_email unique (email)
+);
+
+create table tarefas (
+    id bigint not null auto_increment,
+    titulo varchar(255),
+    data date,
+    hora time(6),
+    ativa bit not null,
+    concluida bit not null,
+    usuario_id bigint,
+    primary key (id),
+    constraint fk_tarefas_usuario foreign key (usuario_id) references usuarios (id)
+);
+
+create index idx_tarefas_usuario_ativa_agenda on tarefas (usuario_id, ativa, data, hora, id);
+
+create table eventos (
+    id bigint not null auto_increment,
+    titulo varchar(255),
+    local varchar(255),
+    data date,
+    hora time(6),
+    ativo bit not null,
+    concluida bit not null,
+    usuario_id bigint,
+    primary key (id),
+    constraint fk_eventos_usuario foreign key (usuario_id) references usuarios (id)
+);
+
+create index idx_eventos_usuario_ativo_agenda on eventos (usuario_id, ativo, data, hora, id);
@@ -0,0 +1,14 @@
+-- Tarefas e eventos passam a receber ids de sequências (emuladas em tabela no MySQL) reservados em blocos
+-- de 50, o que permite ao Hibernate agrupar as inserções em lote. As sequências começam após os ids já usados.
+
+create table tarefas_seq (
+    next_val bigint
+);
+
+insert into tarefas_seq (next_val) select coalesce(max(id), 0) + 51 from tarefas;
+
+create table eventos_seq (
+    next_val bigint
+);
+
+insert into eventos_seq (next_val) select coalesce(max(id), 0) + 51 from eventos;
@@ -0,0 +1,15 @@
+-- Momento (em UTC) da última alteração de cada tarefa e evento: cadastro, edição, conclusão ou exclusão.
+-- É a base da sincronização incremental da agenda. Os compromissos existentes recebem um momento anterior a
+-- qualquer sincronização, pois já chegam aos clientes na primeira delas, que é completa.
+
+alter table tarefas add column atualizado_em datetime(6);
+update tarefas set atualizado_em = '1970-01-01 00:00:00';
+alter table tarefas modify atualizado_em datetime(6) not null;
+
+create index idx_tarefas_usuario_atualizacao on tarefas (usuario_id, atualizado_em);
+
+alter table eventos add column atualizado_em datetime(6);
+update eventos set atualizado_em = '1970-01-01 00:00:00';
+alter table eventos modify atualizado_em datetime(6) not null;
+
+create index idx_eventos_usuario_atualizacao on eventos (usuario_id, atualizado_em);
@@ -0,0 +1,6 @@
+-- Versão de cada tarefa e evento, incrementada a cada alteração, para o controle de concorrência otimista:
+-- uma edição condicional (If-Match) só é aplicada se a linha ainda estiver na versão que o cliente leu.
+
+alter table tarefas add column versao bigint not null default 0;
+
+alter table eventos add column versao bigint not null default 0;
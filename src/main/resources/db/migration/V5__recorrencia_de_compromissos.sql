@@ -0,0 +1,16 @@
+-- Séries recorrentes: a regra (subconjunto do RRULE) e as datas das ocorrências canceladas ficam na própria linha
+-- da tarefa ou do evento, cuja data passa a ser a da primeira ocorrência. Compromissos avulsos mantêm as duas nulas.
+-- A recorrência entra no índice da agenda logo após a situação: os compromissos avulsos (recorrencia nula) continuam
+-- lidos já na ordem (data, hora, id), e as séries do usuário são localizadas sem percorrer os avulsos.
+
+alter table tarefas add column recorrencia varchar(255);
+alter table tarefas add column excecoes text;
+
+create index idx_tarefas_usuario_ativa_recorrencia_agenda on tarefas (usuario_id, ativa, recorrencia, data, hora, id);
+drop index idx_tarefas_usuario_ativa_agenda on tarefas;
+
+alter table eventos add column recorrencia varchar(255);
+alter table eventos add column excecoes text;
+
+create index idx_eventos_usuario_ativo_recorrencia_agenda on eventos (usuario_id, ativo, recorrencia, data, hora, id);
+drop index idx_eventos_usuario_ativo_agenda on eventos;
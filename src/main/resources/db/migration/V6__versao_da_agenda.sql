@@ -0,0 +1,5 @@
+-- Versão da agenda de cada usuário, incrementada na mesma transação de cada alteração nas suas tarefas e eventos.
+-- Fica no banco, e não na memória da aplicação, para que todas as instâncias vejam a mesma versão: é a base do ETag
+-- de /compromissos e da validade do cache da agenda.
+
+alter table usuarios add column versao_agenda bigint not null default 0;
@@ -1,18 +1,40 @@
 package br.com.lifesync.controller;
 
+import br.com.lifesync.domain.compromisso.CompromissoAlteradoDTO;
 import br.com.lifesync.domain.compromisso.CompromissoDTO;
 import br.com.lifesync.domain.compromisso.CompromissoService;
+import br.com.lifesync.domain.compromisso.PaginaCompromissosDTO;
+import br.com.lifesync.domain.compromisso.SincronizacaoDTO;
+import br.com.lifesync.domain.compromisso.VersaoDaAgenda;
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.usuario.UsuarioRepository;
+import br.com.lifesync.domain.usuario.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CompromissoControllerTest {
@@ -23,9 +45,22 @@ class CompromissoControllerTest {
     @Mock
     private CompromissoService compromissoService;
 
+    @Mock
+    private VersaoDaAgenda versaoDaAgenda;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockHttpServletRequest request;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(versaoDaAgenda.etagDoUsuarioLogado()).thenReturn("\"e-7-1\"");
+        request = new MockHttpServletRequest("GET", "/compromissos");
     }
 
     @Test
@@ -38,7 +73,7 @@ class CompromissoControllerTest {
         when(compromissoService.listarCompromissosOrdenados()).thenReturn(compromissosMock);
 
         // Act
-        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos();
+        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos(webRequest());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -51,11 +86,136 @@ class CompromissoControllerTest {
         when(compromissoService.listarCompromissosOrdenados()).thenReturn(List.of());
 
         // Act
-        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos();
+        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos(webRequest());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(0, response.getBody().size());
     }
-}
 
+    @Test
+    void listarCompromissos_DeveRetornarNotModifiedSemConsultarQuandoEtagNaoMudou() {
+        // Arrange
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"e-7-1\"");
+
+        // Act
+        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos(webRequest());
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(compromissoService, never()).listarCompromissosOrdenados();
+    }
+
+    @Test
+    void listarCompromissos_DeveConsultarQuandoEtagMudou() {
+        // Arrange
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"e-7-0\"");
+        when(compromissoService.listarCompromissosOrdenados()).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos(webRequest());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"e-7-1\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void listarCompromissos_DeveConsultarNaViradaDoDiaMesmoSemAlteracoes() {
+        // Arrange: as ocorrências das séries dependem do dia, então o ETag do dia anterior não vale mais
+        AtomicReference<LocalDate> hoje = new AtomicReference<>(LocalDate.of(2024, 12, 15));
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.buscarVersaoDaAgenda(1L)).thenReturn(3L);
+        ReflectionTestUtils.setField(compromissoController, "versaoDaAgenda",
+                new VersaoDaAgenda(usuarioService, usuarioRepository, hoje::get));
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(1L);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+        when(compromissoService.listarCompromissosOrdenados()).thenReturn(List.of());
+        String etag = compromissoController.listarCompromissos(webRequest()).getHeaders().getETag();
+
+        hoje.set(LocalDate.of(2024, 12, 16));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        // Act
+        ResponseEntity<List<CompromissoDTO>> response = compromissoController.listarCompromissos(webRequest());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(compromissoService, times(2)).listarCompromissosOrdenados();
+    }
+
+    @Test
+    void transmitirCompromissos_DeveEscreverUmCompromissoPorLinha() throws Exception {
+        // Arrange
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(1L);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+        doAnswer(invocation -> {
+            Consumer<CompromissoDTO> consumidor = invocation.getArgument(1);
+            consumidor.accept(new CompromissoDTO(1L, "Compromisso 1", "2024-12-15", "10:00", "tarefa"));
+            consumidor.accept(new CompromissoDTO(2L, "Compromisso 2", "2024-12-16", "11:00", "evento"));
+            return null;
+        }).when(compromissoService).percorrerAgenda(eq(1L), any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = compromissoController.transmitirCompromissos(webRequest());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"e-7-1\"", response.getHeaders().getETag());
+        assertEquals("""
+                {"id":1,"titulo":"Compromisso 1","data":"2024-12-15","hora":"10:00","tipo":"tarefa"}
+                {"id":2,"titulo":"Compromisso 2","data":"2024-12-16","hora":"11:00","tipo":"evento"}
+                """, saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void transmitirCompromissos_DeveRetornarNotModifiedSemConsultarQuandoEtagNaoMudou() {
+        // Arrange
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"e-7-1\"");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = compromissoController.transmitirCompromissos(webRequest());
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(compromissoService, never()).percorrerAgenda(any(), any());
+    }
+
+    @Test
+    void listarPaginaDeCompromissos_DeveRetornarPagina() {
+        // Arrange
+        CompromissoDTO compromisso = new CompromissoDTO(1L, "Compromisso 1", "2024-12-15", "10:00", "tarefa");
+        PaginaCompromissosDTO paginaMock = new PaginaCompromissosDTO(List.of(compromisso), "cursor");
+        when(compromissoService.listarPaginaDeCompromissos(null, null, null, 50)).thenReturn(paginaMock);
+
+        // Act
+        ResponseEntity<PaginaCompromissosDTO> response = compromissoController.listarPaginaDeCompromissos(null, null, null, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(paginaMock, response.getBody());
+    }
+
+    @Test
+    void sincronizarCompromissos_DeveRetornarAlteracoesEToken() {
+        // Arrange
+        CompromissoAlteradoDTO alterado = new CompromissoAlteradoDTO(1L, "Compromisso 1", "2024-12-15", "10:00", "tarefa", true, true, 2L, null, List.of());
+        SincronizacaoDTO sincronizacaoMock = new SincronizacaoDTO(List.of(alterado), "proximo");
+        when(compromissoService.sincronizar("token")).thenReturn(sincronizacaoMock);
+
+        // Act
+        ResponseEntity<SincronizacaoDTO> response = compromissoController.sincronizarCompromissos("token");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sincronizacaoMock, response.getBody());
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,298 @@
+package br.com.lifesync.controller;
+
+import br.com.lifesync.domain.evento.CadastroEventoDTO;
+import br.com.lifesync.domain.evento.Evento;
+import br.com.lifesync.domain.evento.EventoRepository;
+import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
+import br.com.lifesync.domain.tarefa.Tarefa;
+import br.com.lifesync.domain.tarefa.TarefaRepository;
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.usuario.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Verifica, pelas estatísticas do Hibernate, quantos comandos SQL e entidades cada endpoint de leitura usa.
+//A classe não é transacional: cada requisição abre a própria sessão, como em produção.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers
+public class ConsultasPorEndpointTestIT {
+
+    private static final String EMAIL = "consultas@email.com";
+
+    @Container
+    static MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("lifesync-teste")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureTestcontainers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mysqlContainer::getUsername);
+        registry.add("spring.datasource.password", mysqlContainer::getPassword);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (mysqlContainer != null) {
+            mysqlContainer.stop();
+        }
+    }
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TarefaRepository tarefaRepository;
+
+    @Autowired
+    private EventoRepository eventoRepository;
+
+    @Autowired
+    private TarefaController tarefaController;
+
+    @Autowired
+    private EventoController eventoController;
+
+    @Autowired
+    private CompromissoController compromissoController;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    private Statistics estatisticas;
+
+    private Usuario usuario;
+
+    private Tarefa tarefa;
+
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(tarefaController, eventoController, compromissoController).build();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        tarefaRepository.deleteAll();
+        eventoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        usuario = usuarioRepository.save(new Usuario("Usuário", EMAIL, "senha", Role.USUARIO));
+        tarefa = new Tarefa(new CadastroTarefaDTO("Tarefa", "2025-01-12", "14:00"));
+        tarefa.setUsuario(usuario);
+        tarefa = tarefaRepository.save(tarefa);
+        evento = new Evento(new CadastroEventoDTO("Evento", "2025-01-12", "09:00", "Local"));
+        evento.setUsuario(usuario);
+        evento = eventoRepository.save(evento);
+
+        estatisticas.clear();
+    }
+
+    @Test
+    @DisplayName("Obter uma tarefa deve carregar apenas a tarefa, sem o usuário")
+    @WithMockUser(username = EMAIL)
+    void obterTarefaDeveUsarUmaConsulta() throws Exception {
+        // A primeira requisição carrega o usuário logado no cache
+        mockMvc.perform(get("/tarefas/" + tarefa.getId())).andExpect(status().isOk());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/tarefas/" + tarefa.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario").doesNotExist());
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(1, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Obter um evento deve carregar apenas o evento, sem o usuário")
+    @WithMockUser(username = EMAIL)
+    void obterEventoDeveUsarUmaConsulta() throws Exception {
+        // A primeira requisição carrega o usuário logado no cache
+        mockMvc.perform(get("/eventos/" + evento.getId())).andExpect(status().isOk());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/eventos/" + evento.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario").doesNotExist());
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(1, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Listar a agenda deve usar duas consultas por tabela (compromissos avulsos e séries), além da versão, sem carregar entidades")
+    @WithMockUser(username = EMAIL)
+    void listarCompromissosDeveUsarDuasConsultasPorTabela() throws Exception {
+        // A primeira requisição carrega o usuário logado no cache, sem passar pela agenda
+        mockMvc.perform(get("/tarefas/" + tarefa.getId())).andExpect(status().isOk());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        // A versão da agenda é lida pelo ETag e novamente pelo cache da agenda
+        assertEquals(6, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Listar a agenda novamente sem alterações deve ser atendido pelo cache, consultando apenas a versão")
+    @WithMockUser(username = EMAIL)
+    void listarCompromissosNovamenteNaoDeveConsultar() throws Exception {
+        mockMvc.perform(get("/compromissos")).andExpect(status().isOk());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Listar a agenda depois de excluir uma tarefa deve consultar o banco e refletir a alteração")
+    @WithMockUser(username = EMAIL)
+    void listarCompromissosDepoisDeAlteracaoDeveConsultar() throws Exception {
+        mockMvc.perform(get("/compromissos")).andExpect(status().isOk());
+        mockMvc.perform(delete("/tarefas/" + tarefa.getId())).andExpect(status().isNoContent());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        assertEquals(6, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Transmitir a agenda deve escrever um compromisso por linha, em ordem, com duas consultas por tabela")
+    @WithMockUser(username = EMAIL)
+    void transmitirCompromissosDeveUsarDuasConsultasPorTabela() throws Exception {
+        // A primeira requisição carrega o usuário logado no cache
+        mockMvc.perform(get("/tarefas/" + tarefa.getId())).andExpect(status().isOk());
+        estatisticas.clear();
+
+        MvcResult resultado = mockMvc.perform(get("/compromissos/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].contains("\"titulo\":\"Evento\""));
+        assertTrue(linhas[1].contains("\"titulo\":\"Tarefa\""));
+        // Duas consultas por tabela e a versão da agenda, lida pelo ETag
+        assertEquals(5, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Sincronizar a partir de um token deve trazer apenas as alterações, inclusive exclusões")
+    @WithMockUser(username = EMAIL)
+    void sincronizarDeveTrazerApenasAlteracoes() throws Exception {
+        String token = JsonPath.read(mockMvc.perform(get("/compromissos/sync"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados.length()").value(2))
+                .andReturn().getResponse().getContentAsString(), "$.token");
+        mockMvc.perform(delete("/tarefas/" + tarefa.getId())).andExpect(status().isNoContent());
+        estatisticas.clear();
+
+        // O evento, cadastrado dentro da margem do token, também pode voltar; a tarefa excluída precisa vir inativa
+        mockMvc.perform(get("/compromissos/sync").param("desde", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados[?(@.tipo == 'tarefa')].ativo").value(false))
+                .andExpect(jsonPath("$.token").isString());
+
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Listar a agenda com o ETag da versão atual deve responder 304 consultando apenas a versão")
+    @WithMockUser(username = EMAIL)
+    void listarCompromissosSemAlteracaoNaoDeveConsultar() throws Exception {
+        String etag = mockMvc.perform(get("/compromissos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Listar uma página da agenda deve usar duas consultas por tabela (compromissos avulsos e séries), sem carregar entidades")
+    @WithMockUser(username = EMAIL)
+    void listarPaginaDeCompromissosDeveUsarDuasConsultasPorTabela() throws Exception {
+        mockMvc.perform(get("/compromissos/pagina")).andExpect(status().isOk());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos/pagina").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.compromissos.length()").value(1));
+
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Uma série recorrente deve aparecer na página como ocorrências, exceto a cancelada, sem consultas por ocorrência")
+    @WithMockUser(username = EMAIL)
+    void listarPaginaComSerieRecorrenteDeveExpandirAsOcorrencias() throws Exception {
+        Tarefa serie = new Tarefa(new CadastroTarefaDTO("Academia", "2025-01-06", "07:00", "FREQ=WEEKLY"));
+        serie.setUsuario(usuario);
+        serie = tarefaRepository.save(serie);
+        mockMvc.perform(delete("/tarefas/" + serie.getId() + "/ocorrencias/2025-01-13")).andExpect(status().isNoContent());
+        // O cancelamento altera a série como qualquer edição: nova versão, visível ao If-Match e à sincronização
+        assertEquals(1L, tarefaRepository.findById(serie.getId()).orElseThrow().getVersao());
+        estatisticas.clear();
+
+        mockMvc.perform(get("/compromissos/pagina").param("de", "2025-01-01").param("ate", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.compromissos[*].data").value(contains("2025-01-06", "2025-01-12", "2025-01-12", "2025-01-20", "2025-01-27")))
+                .andExpect(jsonPath("$.compromissos[0].id").value(serie.getId()));
+
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+}
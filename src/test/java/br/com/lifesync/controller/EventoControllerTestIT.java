@@ -106,6 +106,7 @@ public class EventoControllerTestIT {
     public void deveEditarUmEventoExistente() throws Exception {
         // Cria e salva um evento no banco
         Evento evento = new Evento();
+        evento.setUsuario(salvarUsuarioLogado());
         evento.setTitulo("Evento Original");
         evento.setData(LocalDate.parse("2025-01-12"));
         evento.setHora(LocalTime.parse("14:00"));
@@ -140,6 +141,7 @@ public class EventoControllerTestIT {
     public void deveDesativarUmEventoExistente() throws Exception {
         // Cria e salva um evento no banco
         Evento evento = new Evento();
+        evento.setUsuario(salvarUsuarioLogado());
         evento.setTitulo("Evento para Desativar");
         evento.setData(LocalDate.parse("2025-01-12"));
         evento.setHora(LocalTime.parse("14:00"));
@@ -160,4 +162,11 @@ public class EventoControllerTestIT {
         assert eventoDesativado.isPresent();
         assert !eventoDesativado.get().isAtivo();  // Verifica se o evento foi desativado
     }
+
+    // Salva o usuário correspondente ao @WithMockUser, dono dos compromissos alterados nos testes
+    private Usuario salvarUsuarioLogado() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail("usuario1@email.com");
+        return usuarioRepository.save(usuario);
+    }
 }
@@ -1,27 +1,49 @@
 package br.com.lifesync.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import br.com.lifesync.domain.usuario.CadastroUsuarioDTO;
+import br.com.lifesync.domain.usuario.EmailJaCadastradoException;
 import br.com.lifesync.domain.usuario.LoginDTO;
 import br.com.lifesync.domain.usuario.Role;
 import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
+import br.com.lifesync.infra.exception.TratadorDeErros;
+import br.com.lifesync.infra.security.HashDeSenhas;
+import br.com.lifesync.infra.security.LimitadorDeTentativas;
 import br.com.lifesync.infra.security.TokenService;
 
 class LoginControllerTest {
@@ -38,8 +60,20 @@ class LoginControllerTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private HashDeSenhas hashDeSenhas;
+
+    @Mock
+    private LimitadorDeTentativas limitador;
+
+    @Spy
+    private TaskExecutor executor = new SyncTaskExecutor();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
     public LoginControllerTest() {
         MockitoAnnotations.openMocks(this);
+        when(limitador.permitir(any(), any())).thenReturn(true);
     }
 
     @Test
@@ -55,7 +89,7 @@ class LoginControllerTest {
         when(tokenService.gerarToken(usuarioMock)).thenReturn("tokenJWT");
 
         // Act
-        ResponseEntity<String> response = loginController.efetuarLogin(loginDTO);
+        ResponseEntity<String> response = loginController.efetuarLogin(loginDTO, request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -73,7 +107,7 @@ class LoginControllerTest {
 
         // Act
         try {
-            loginController.efetuarLogin(loginDTO);
+            loginController.efetuarLogin(loginDTO, request);
         } catch (Exception e) {
             // Assert
             assertEquals("Authentication failed", e.getMessage());
@@ -82,39 +116,94 @@ class LoginControllerTest {
         verify(tokenService, never()).gerarToken(any(Usuario.class));
     }
 
+    @Test
+    void efetuarLogin_DeveRecusarSemVerificarSenhaQuandoLimiteForExcedido() {
+        // Arrange
+        LoginDTO loginDTO = new LoginDTO("user@example.com", "password123");
+        request.setRemoteAddr("10.0.0.1");
+        when(limitador.permitir("user@example.com", "10.0.0.1")).thenReturn(false);
+        when(limitador.segundosParaNovaTentativa()).thenReturn(60L);
+
+        // Act
+        ResponseEntity<String> response = loginController.efetuarLogin(loginDTO, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("60", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
     @Test
     void register_DeveCadastrarUsuarioComSucesso() {
         // Arrange
         CadastroUsuarioDTO cadastroUsuarioDTO = new CadastroUsuarioDTO("User", "user@example.com", "password123");
-        when(usuarioService.loadUserByUsername("user@example.com")).thenReturn(null);
+        when(usuarioService.existeUsuarioComEmail("user@example.com")).thenReturn(false);
+        when(hashDeSenhas.criptografar("password123")).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
 
         // Act
-        ResponseEntity<Void> response = loginController.register(cadastroUsuarioDTO);
+        ResponseEntity<Void> response = loginController.register(cadastroUsuarioDTO).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(usuarioService).salvarUsuario(any(Usuario.class));
+        ArgumentCaptor<Usuario> usuario = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioService).salvarUsuario(usuario.capture());
+        assertEquals("encodedPassword", usuario.getValue().getPassword());
+        verify(executor).execute(any());
+    }
+
+    @Test
+    void register_DevePropagarRecusaDoPoolDeCriptografia() {
+        // Arrange
+        CadastroUsuarioDTO cadastroUsuarioDTO = new CadastroUsuarioDTO("User", "user@example.com", "password123");
+        when(usuarioService.existeUsuarioComEmail("user@example.com")).thenReturn(false);
+        when(hashDeSenhas.criptografar("password123")).thenThrow(new RejectedExecutionException());
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> loginController.register(cadastroUsuarioDTO));
+        verify(usuarioService, never()).salvarUsuario(any());
     }
 
     @Test
     void register_NaoDeveCadastrarUsuarioJaExistente() {
         // Arrange
         CadastroUsuarioDTO cadastroUsuarioDTO = new CadastroUsuarioDTO("User", "user@example.com", "password123");
-        Usuario usuarioExistente = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
-        when(usuarioService.loadUserByUsername("user@example.com")).thenReturn(usuarioExistente);
+        when(usuarioService.existeUsuarioComEmail("user@example.com")).thenReturn(true);
 
         // Act
-        ResponseEntity<Void> response = loginController.register(cadastroUsuarioDTO);
+        ResponseEntity<Void> response = loginController.register(cadastroUsuarioDTO).join();
 
         // Assert
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(usuarioService, never()).loadUserByUsername(any());
+        verify(hashDeSenhas, never()).criptografar(any());
         verify(usuarioService, never()).salvarUsuario(any());
     }
 
+    @Test
+    void register_DeveResponderConflitoQuandoCadastroSimultaneoViolarEmailUnico() throws Exception {
+        // Arrange
+        when(usuarioService.existeUsuarioComEmail("user@example.com")).thenReturn(false);
+        when(hashDeSenhas.criptografar("password123")).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        doThrow(new EmailJaCadastradoException()).when(usuarioService).salvarUsuario(any());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(loginController)
+                .setControllerAdvice(new TratadorDeErros())
+                .build();
+
+        // Act
+        MvcResult cadastro = mockMvc.perform(post("/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"User\",\"email\":\"user@example.com\",\"senha\":\"password123\"}"))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(cadastro)).andExpect(status().isConflict());
+    }
+
     @Test
     void register_NaoDeveCadastrarUsuarioComDadosInvalidos() {
         // Arrange
         CadastroUsuarioDTO cadastroUsuarioDTO = new CadastroUsuarioDTO("", "invalidemail", "short");
+        when(hashDeSenhas.criptografar(any())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
 
         // Act
         try {
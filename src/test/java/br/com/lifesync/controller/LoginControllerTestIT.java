@@ -7,6 +7,7 @@ import br.com.lifesync.domain.usuario.UsuarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,19 +17,24 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
-import org.springframework.transaction.annotation.Transactional;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+//A classe não é transacional: o cadastro grava o usuário em outra thread, em uma transação própria, que uma
+//transação do teste (com o snapshot do REPEATABLE READ) não enxergaria. O usuário é excluído ao final de cada teste
 @SpringBootTest
 @Testcontainers
-@Transactional 
 class LoginControllerTestIT {
 
+    private static final String EMAIL = "usuario.teste@email.com";
+
     @Container
     static MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
             .withDatabaseName("lifesync-teste")
@@ -60,6 +66,14 @@ class LoginControllerTestIT {
         registry.add("spring.datasource.password", mysqlContainer::getPassword);
     }
 
+    @AfterEach
+    void excluirUsuario() {
+        var usuario = usuarioRepository.findByEmail(EMAIL);
+        if (usuario != null) {
+            usuarioRepository.delete(usuario);
+        }
+    }
+
     @Test
     @DisplayName("Deve registrar um novo usuário e permitir login")
     void deveRegistrarUsuarioEPermitirLogin() throws Exception {
@@ -68,21 +82,24 @@ class LoginControllerTestIT {
         // Dados do novo usuário
         CadastroUsuarioDTO novoUsuario = new CadastroUsuarioDTO(
                 "Teste Usuario", 
-                "usuario.teste@email.com", 
+                EMAIL, 
                 "senha123");
 
-        // Requisição para registrar o usuário
-        mockMvc.perform(post("/signin")
+        // Requisição para registrar o usuário; a senha é criptografada de forma assíncrona
+        MvcResult cadastro = mockMvc.perform(post("/signin")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(novoUsuario)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(cadastro))
                 .andExpect(status().isOk()); // Verifica que o registro foi bem-sucedido
 
         // Verifica que o usuário foi salvo no banco
-        assert (usuarioRepository.findByEmail("usuario.teste@email.com")!= null);
+        assertNotNull(usuarioRepository.findByEmail(EMAIL));
 
         // Dados para login
         LoginDTO loginDTO = new LoginDTO(
-                "usuario.teste@email.com", 
+                EMAIL, 
                 "senha123");
 
         // Requisição para realizar o login
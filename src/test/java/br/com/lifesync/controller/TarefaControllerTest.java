@@ -1,21 +1,36 @@
 package br.com.lifesync.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
 import br.com.lifesync.domain.tarefa.EdicaoTarefaDTO;
 import br.com.lifesync.domain.tarefa.Tarefa;
 import br.com.lifesync.domain.tarefa.TarefaService;
+import br.com.lifesync.infra.exception.TratadorDeErros;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 class TarefaControllerTest {
@@ -26,6 +41,8 @@ class TarefaControllerTest {
     @Mock
     private TarefaService tarefaService;
 
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tarefas/1");
+
     public TarefaControllerTest() {
         MockitoAnnotations.openMocks(this);
     }
@@ -48,15 +65,17 @@ class TarefaControllerTest {
     void dobterTarefa_deveObterTarefaComSucesso() {
         // Arrange
         Long tarefaId = 1L;
-        Tarefa tarefaMock = new Tarefa();
+        Tarefa tarefaMock = mock(Tarefa.class);
+        when(tarefaMock.getVersao()).thenReturn(3L);
         when(tarefaService.obterTarefa(tarefaId)).thenReturn(Optional.of(tarefaMock));
 
         // Act
-        ResponseEntity<Tarefa> response = tarefaController.obterTarefa(tarefaId);
+        ResponseEntity<Tarefa> response = tarefaController.obterTarefa(tarefaId, webRequest());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(tarefaMock, response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
         verify(tarefaService).obterTarefa(tarefaId);
     }
 
@@ -67,33 +86,81 @@ class TarefaControllerTest {
         when(tarefaService.obterTarefa(tarefaId)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Tarefa> response = tarefaController.obterTarefa(tarefaId);
+        ResponseEntity<Tarefa> response = tarefaController.obterTarefa(tarefaId, webRequest());
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(tarefaService).obterTarefa(tarefaId);
     }
 
+    @Test
+    void obterTarefa_deveRetornarNotModifiedQuandoVersaoNaoMudou() {
+        // Arrange
+        Tarefa tarefaMock = mock(Tarefa.class);
+        when(tarefaMock.getVersao()).thenReturn(3L);
+        when(tarefaService.obterTarefa(1L)).thenReturn(Optional.of(tarefaMock));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        // Act
+        ResponseEntity<Tarefa> response = tarefaController.obterTarefa(1L, webRequest());
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
     @Test
     void editarTarefa_deveEditarTarefaComSucesso() {
         // Arrange
         Long tarefaId = 1L;
         EdicaoTarefaDTO edicaoTarefaDTO = new EdicaoTarefaDTO("titulo", "descricao", "prazo");
-        doNothing().when(tarefaService).editarTarefa(tarefaId, edicaoTarefaDTO);
+        when(tarefaService.editarTarefa(tarefaId, edicaoTarefaDTO, null)).thenReturn(true);
 
         // Act
-        ResponseEntity<Void> response = tarefaController.editarTarefa(tarefaId, edicaoTarefaDTO);
+        ResponseEntity<Void> response = tarefaController.editarTarefa(tarefaId, edicaoTarefaDTO, null);
 
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(tarefaService).editarTarefa(tarefaId, edicaoTarefaDTO);
+        assertNull(response.getHeaders().getETag());
+        verify(tarefaService).editarTarefa(tarefaId, edicaoTarefaDTO, null);
+    }
+
+    @Test
+    void editarTarefa_comIfMatchDeveEditarNaVersaoEsperadaERetornarANovaVersao() {
+        // Arrange
+        Long tarefaId = 1L;
+        EdicaoTarefaDTO edicaoTarefaDTO = new EdicaoTarefaDTO("titulo", "descricao", "prazo");
+        when(tarefaService.editarTarefa(tarefaId, edicaoTarefaDTO, List.of(3L))).thenReturn(true);
+
+        // Act
+        ResponseEntity<Void> response = tarefaController.editarTarefa(tarefaId, edicaoTarefaDTO, "\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void editarTarefa_comIfMatchFracoOuCuringaDeveRepassarAsVersoesAceitas() {
+        // Arrange
+        Long tarefaId = 1L;
+        EdicaoTarefaDTO edicaoTarefaDTO = new EdicaoTarefaDTO("titulo", "descricao", "prazo");
+
+        // Act
+        tarefaController.editarTarefa(tarefaId, edicaoTarefaDTO, "*");
+        tarefaController.editarTarefa(tarefaId, edicaoTarefaDTO, "W/\"3\", \"abc\"");
+
+        // Assert
+        verify(tarefaService).editarTarefa(tarefaId, edicaoTarefaDTO, null);
+        verify(tarefaService).editarTarefa(tarefaId, edicaoTarefaDTO, List.of());
     }
 
     @Test
     void excluirTarefa_deveExcluirTarefaComSucesso() {
         // Arrange
         Long tarefaId = 1L;
-        doNothing().when(tarefaService).excluirTarefa(tarefaId);
+        when(tarefaService.excluirTarefa(tarefaId)).thenReturn(true);
 
         // Act
         ResponseEntity<Void> response = tarefaController.excluirTarefa(tarefaId);
@@ -107,7 +174,7 @@ class TarefaControllerTest {
     void concluirTarefa_deveMarcarTarefaComoConcluidaComSucesso() {
         // Arrange
         Long tarefaId = 1L;
-        doNothing().when(tarefaService).marcarTarefaComoConcluida(tarefaId);
+        when(tarefaService.marcarTarefaComoConcluida(tarefaId)).thenReturn(true);
 
         // Act
         ResponseEntity<Void> response = tarefaController.marcarTarefaComoConcluida(tarefaId);
@@ -116,4 +183,59 @@ class TarefaControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(tarefaService).marcarTarefaComoConcluida(tarefaId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void concluirTarefa_deveRetornarNotFoundQuandoTarefaNaoEhEncontrada() {
+        // Arrange
+        Long tarefaId = 1L;
+        when(tarefaService.marcarTarefaComoConcluida(tarefaId)).thenReturn(false);
+
+        // Act
+        ResponseEntity<Void> response = tarefaController.marcarTarefaComoConcluida(tarefaId);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void adicionarTarefas_deveAdicionarLoteComSucesso() {
+        // Arrange
+        List<CadastroTarefaDTO> dtos = List.of(
+                new CadastroTarefaDTO("Tarefa 1", "2025-01-12", "14:00"),
+                new CadastroTarefaDTO("Tarefa 2", "2025-01-13", "15:00"));
+
+        // Act
+        ResponseEntity<Void> response = tarefaController.adicionarTarefas(dtos);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verify(tarefaService).adicionarTarefas(dtos);
+    }
+
+    @Test
+    void adicionarTarefas_deveRejeitarLoteVazioOuComItemInvalido() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(tarefaController).build();
+
+        mockMvc.perform(post("/tarefas/lote").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/tarefas/lote").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"titulo\": \"Tarefa\", \"data\": \"12/01/2025\", \"hora\": \"14:00\"}]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(tarefaService);
+    }
+
+    @Test
+    void cancelarOcorrencia_deveResponderConflitoQuandoTarefaForAlteradaAoMesmoTempo() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(tarefaController)
+                .setControllerAdvice(new TratadorDeErros()).build();
+        when(tarefaService.cancelarOcorrencia(1L, LocalDate.of(2025, 1, 12)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Tarefa.class, 1L));
+
+        mockMvc.perform(delete("/tarefas/1/ocorrencias/2025-01-12"))
+                .andExpect(status().isConflict());
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
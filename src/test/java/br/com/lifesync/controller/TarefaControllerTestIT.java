@@ -5,6 +5,7 @@ import br.com.lifesync.domain.tarefa.TarefaRepository;
 import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioRepository;
 import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
+import br.com.lifesync.infra.exception.TratadorDeErros;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -26,6 +28,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Optional;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -73,7 +76,7 @@ public class TarefaControllerTestIT {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(tarefaController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(tarefaController).setControllerAdvice(new TratadorDeErros()).build();
     }
 
     @Test
@@ -117,6 +120,7 @@ public class TarefaControllerTestIT {
     public void deveEditarUmaTarefaExistente() throws Exception {
         // Cria e salva uma tarefa no banco
         Tarefa tarefa = new Tarefa();
+        tarefa.setUsuario(salvarUsuarioLogado());
         tarefa.setTitulo("Tarefa Original");
         tarefa.setData(LocalDate.parse("2025-01-12"));
         tarefa.setHora(LocalTime.parse("14:00"));
@@ -142,12 +146,46 @@ public class TarefaControllerTestIT {
         assert tarefaEditada.getHora().equals(LocalTime.parse("15:00"));
     }
 
+    @Test
+    @DisplayName("Deve editar com If-Match apenas na versão lida e responder 412 com uma versão desatualizada")
+    @WithMockUser(username = "usuario1@email.com", roles = {"USER"})
+    public void deveEditarApenasNaVersaoInformadaNoIfMatch() throws Exception {
+        Tarefa tarefa = new Tarefa(new CadastroTarefaDTO("Tarefa Original", "2025-01-12", "14:00"));
+        tarefa.setUsuario(salvarUsuarioLogado());
+        tarefa = tarefaRepository.save(tarefa);
+
+        String etag = mockMvc.perform(get("/tarefas/" + tarefa.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Primeira edição com a versão lida: aplicada, e o novo ETag é devolvido
+        String novoEtag = mockMvc.perform(put("/tarefas/" + tarefa.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CadastroTarefaDTO("Primeira Edição", null, null))))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Segunda edição com a mesma versão, como a de outro dispositivo: rejeitada sem sobrescrever a primeira
+        mockMvc.perform(put("/tarefas/" + tarefa.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CadastroTarefaDTO("Segunda Edição", null, null))))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/tarefas/" + tarefa.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, novoEtag))
+                .andExpect(jsonPath("$.titulo").value("Primeira Edição"));
+    }
+
     @Test
     @DisplayName("Deve desativar uma tarefa existente")
     @WithMockUser(username = "usuario1@email.com", roles = {"USER"})
     public void deveDesativarUmaTarefaExistente() throws Exception {
         // Cria e salva uma tarefa no banco
         Tarefa tarefa = new Tarefa();
+        tarefa.setUsuario(salvarUsuarioLogado());
         tarefa.setTitulo("Tarefa para Desativar");
         tarefa.setData(LocalDate.parse("2025-01-12"));
         tarefa.setHora(LocalTime.parse("14:00"));
@@ -168,5 +206,29 @@ public class TarefaControllerTestIT {
         assert !tarefaDesativada.get().isAtiva();  // Verifica se a tarefa foi desativada
     }
 
+    @Test
+    @DisplayName("Deve retornar 404 ao concluir uma tarefa de outro usuário")
+    @WithMockUser(username = "usuario1@email.com", roles = {"USER"})
+    public void deveRetornarNotFoundAoConcluirTarefaDeOutroUsuario() throws Exception {
+        salvarUsuarioLogado();
+        Usuario outroUsuario = new Usuario();
+        outroUsuario.setEmail("usuario2@email.com");
+        outroUsuario = usuarioRepository.save(outroUsuario);
+
+        Tarefa tarefa = new Tarefa(new CadastroTarefaDTO("Tarefa de Outro", "2025-01-12", "14:00"));
+        tarefa.setUsuario(outroUsuario);
+        tarefa = tarefaRepository.save(tarefa);
+
+        mockMvc.perform(patch("/tarefas/" + tarefa.getId() + "/concluir"))
+                .andExpect(status().isNotFound());
 
+        assert !tarefaRepository.findById(tarefa.getId()).orElseThrow().isConcluida();
+    }
+
+    // Salva o usuário correspondente ao @WithMockUser, dono dos compromissos alterados nos testes
+    private Usuario salvarUsuarioLogado() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail("usuario1@email.com");
+        return usuarioRepository.save(usuario);
+    }
 }
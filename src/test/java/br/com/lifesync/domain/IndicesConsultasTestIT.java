@@ -0,0 +1,251 @@
+package br.com.lifesync.domain;
+
+import br.com.lifesync.domain.compromisso.CompromissoDTO;
+import br.com.lifesync.domain.evento.CadastroEventoDTO;
+import br.com.lifesync.domain.evento.Evento;
+import br.com.lifesync.domain.evento.EventoRepository;
+import br.com.lifesync.domain.tarefa.CadastroTarefaDTO;
+import br.com.lifesync.domain.tarefa.Tarefa;
+import br.com.lifesync.domain.tarefa.TarefaRepository;
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.usuario.UsuarioRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Executa EXPLAIN no SQL gerado pelo Hibernate para as consultas mais frequentes e verifica que todas usam índice
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.lifesync.domain.IndicesConsultasTestIT$CapturaSql")
+@Testcontainers
+public class IndicesConsultasTestIT {
+
+    @Container
+    static MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("lifesync-teste")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureTestcontainers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mysqlContainer::getUsername);
+        registry.add("spring.datasource.password", mysqlContainer::getPassword);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (mysqlContainer != null) {
+            mysqlContainer.stop();
+        }
+    }
+
+    //Guarda o SQL de cada comando preparado pelo Hibernate, sem alterá-lo
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            comandos.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TarefaRepository tarefaRepository;
+
+    @Autowired
+    private EventoRepository eventoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        tarefaRepository.deleteAll();
+        eventoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        // Alguns usuários com compromissos ativos e inativos, para que o otimizador tenha o que descartar
+        for (int u = 0; u < 5; u++) {
+            Usuario outro = usuarioRepository.save(new Usuario("Usuário " + u, "usuario" + u + "@email.com", "senha", Role.USUARIO));
+            for (int i = 0; i < 40; i++) {
+                String data = LocalDate.of(2025, 1, 1).plusDays(i % 20).toString();
+                String hora = LocalTime.of(8 + i % 10, 0).toString();
+
+                Tarefa tarefa = new Tarefa(new CadastroTarefaDTO("Tarefa " + i, data, hora));
+                tarefa.setUsuario(outro);
+                if (i % 4 == 0) {
+                    tarefa.desativar();
+                }
+                tarefaRepository.save(tarefa);
+
+                Evento evento = new Evento(new CadastroEventoDTO("Evento " + i, data, hora, "Local"));
+                evento.setUsuario(outro);
+                if (i % 4 == 0) {
+                    evento.desativar();
+                }
+                eventoRepository.save(evento);
+            }
+            usuario = outro;
+        }
+        jdbcTemplate.execute("ANALYZE TABLE usuarios, tarefas, eventos");
+        CapturaSql.comandos.clear();
+    }
+
+    @Test
+    @DisplayName("A busca de usuário por e-mail deve usar o índice único de e-mail")
+    void buscaPorEmailDeveUsarIndice() {
+        usuarioRepository.findByEmail(usuario.getEmail());
+
+        assertUsaIndice(ultimoSelect("usuarios"), usuario.getEmail());
+    }
+
+    @Test
+    @DisplayName("A verificação de e-mail já cadastrado deve usar o índice único de e-mail")
+    void verificacaoDeEmailDeveUsarIndice() {
+        assertTrue(usuarioRepository.existsByEmail(usuario.getEmail()));
+
+        assertUsaIndice(ultimoSelect("usuarios"), usuario.getEmail(), 1);
+    }
+
+    @Test
+    @DisplayName("A agenda de tarefas ativas do usuário deve usar o índice composto")
+    void agendaDeTarefasDeveUsarIndice() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CompromissoDTO> tarefas = tarefaRepository.buscarAtivasOrdenadasDoUsuario(usuario.getId())) {
+                tarefas.forEach(tarefa -> {});
+            }
+        });
+
+        assertUsaIndice(ultimoSelect("tarefas"), usuario.getId());
+    }
+
+    @Test
+    @DisplayName("A agenda de eventos ativos do usuário deve usar o índice composto")
+    void agendaDeEventosDeveUsarIndice() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CompromissoDTO> eventos = eventoRepository.buscarAtivosOrdenadosDoUsuario(usuario.getId())) {
+                eventos.forEach(evento -> {});
+            }
+        });
+
+        assertUsaIndice(ultimoSelect("eventos"), usuario.getId());
+    }
+
+    @Test
+    @DisplayName("A página de tarefas a partir de um cursor deve usar o índice composto")
+    void paginaDeTarefasDeveUsarIndice() {
+        LocalDate de = LocalDate.of(2025, 1, 1);
+        LocalDate ate = LocalDate.of(2025, 12, 31);
+        LocalDate data = LocalDate.of(2025, 1, 5);
+        LocalTime hora = LocalTime.of(10, 0);
+        tarefaRepository.buscarPaginaDoUsuario(usuario.getId(), de, ate, data, hora, 0L, PageRequest.ofSize(11));
+
+        // Parâmetros na ordem em que aparecem na consulta
+        assertUsaIndice(ultimoSelect("tarefas"), usuario.getId(), Date.valueOf(de), Date.valueOf(ate),
+                Date.valueOf(data), Date.valueOf(data), Time.valueOf(hora), Time.valueOf(hora), 0L, 11);
+    }
+
+    @Test
+    @DisplayName("A página de eventos a partir de um cursor deve usar o índice composto")
+    void paginaDeEventosDeveUsarIndice() {
+        LocalDate de = LocalDate.of(2025, 1, 1);
+        LocalDate ate = LocalDate.of(2025, 12, 31);
+        LocalDate data = LocalDate.of(2025, 1, 5);
+        LocalTime hora = LocalTime.of(10, 0);
+        eventoRepository.buscarPaginaDoUsuario(usuario.getId(), de, ate, data, hora, 0L, PageRequest.ofSize(11));
+
+        assertUsaIndice(ultimoSelect("eventos"), usuario.getId(), Date.valueOf(de), Date.valueOf(ate),
+                Date.valueOf(data), Date.valueOf(data), Time.valueOf(hora), Time.valueOf(hora), 0L, 11);
+    }
+
+    @Test
+    @DisplayName("A sincronização incremental de tarefas deve usar o índice de atualização")
+    void sincronizacaoDeTarefasDeveUsarIndice() {
+        Instant desde = Instant.now().minusSeconds(60);
+        tarefaRepository.buscarAlteradasDoUsuario(usuario.getId(), desde, List.of(true, false));
+
+        assertUsaIndice(ultimoSelect("tarefas"), usuario.getId(), Timestamp.from(desde), true, false);
+    }
+
+    @Test
+    @DisplayName("A sincronização incremental de eventos deve usar o índice de atualização")
+    void sincronizacaoDeEventosDeveUsarIndice() {
+        Instant desde = Instant.now().minusSeconds(60);
+        eventoRepository.buscarAlteradosDoUsuario(usuario.getId(), desde, List.of(true, false));
+
+        assertUsaIndice(ultimoSelect("eventos"), usuario.getId(), Timestamp.from(desde), true, false);
+    }
+
+    @Test
+    @DisplayName("A busca das séries recorrentes de tarefas deve usar o índice da agenda")
+    void seriesDeTarefasDeveUsarIndice() {
+        LocalDate ate = LocalDate.of(2026, 1, 1);
+        tarefaRepository.buscarSeriesAtivasDoUsuario(usuario.getId(), ate);
+
+        assertUsaIndice(ultimoSelect("tarefas"), usuario.getId(), Date.valueOf(ate));
+    }
+
+    @Test
+    @DisplayName("A busca das séries recorrentes de eventos deve usar o índice da agenda")
+    void seriesDeEventosDeveUsarIndice() {
+        LocalDate ate = LocalDate.of(2026, 1, 1);
+        eventoRepository.buscarSeriesAtivasDoUsuario(usuario.getId(), ate);
+
+        assertUsaIndice(ultimoSelect("eventos"), usuario.getId(), Date.valueOf(ate));
+    }
+
+    private String ultimoSelect(String tabela) {
+        List<String> selects = CapturaSql.comandos.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + tabela + " "))
+                .toList();
+        assertFalse(selects.isEmpty(), "Nenhuma consulta capturada na tabela " + tabela);
+        return selects.get(selects.size() - 1);
+    }
+
+    private void assertUsaIndice(String sql, Object... parametros) {
+        assertEquals(parametros.length, sql.chars().filter(c -> c == '?').count(), "Parâmetros não conferem com: " + sql);
+
+        List<Map<String, Object>> plano = jdbcTemplate.queryForList("EXPLAIN " + sql, parametros);
+
+        assertFalse(plano.isEmpty());
+        for (Map<String, Object> linha : plano) {
+            assertNotEquals("ALL", linha.get("type"), "Varredura completa em " + linha.get("table") + ": " + sql);
+            assertNotNull(linha.get("key"), "Nenhum índice usado em " + linha.get("table") + ": " + sql);
+        }
+    }
+}
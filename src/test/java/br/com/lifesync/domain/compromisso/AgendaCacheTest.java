@@ -0,0 +1,77 @@
+package br.com.lifesync.domain.compromisso;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendaCacheTest {
+
+    private static final List<CompromissoDTO> AGENDA = List.of(
+            new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa"));
+
+    private static final List<CompromissoDTO> AGENDA_ALTERADA = List.of(
+            new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento"));
+
+    private static final LocalDate HOJE = LocalDate.of(2024, 12, 15);
+
+    private AgendaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AgendaCache(Duration.ofMinutes(10), 1000);
+    }
+
+    @Test
+    void buscar_DeveReaproveitarAAgendaDaMesmaVersao() {
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+
+        List<CompromissoDTO> result = cache.buscar(1L, 5L, HOJE, () -> fail("Não deveria consultar o banco"));
+
+        assertSame(AGENDA, result);
+        assertEquals(1, cache.getAcertos());
+        assertEquals(1, cache.getFalhas());
+    }
+
+    @Test
+    void buscar_DeveSepararAgendasDeUsuariosDiferentes() {
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+
+        assertSame(AGENDA_ALTERADA, cache.buscar(2L, 5L, HOJE, () -> AGENDA_ALTERADA));
+    }
+
+    @Test
+    void buscar_LeituraDeVersaoAntigaNaoDeveSobreporAMaisRecente() {
+        // Leitura iniciada antes de uma alteração e concluída depois de outra leitura já ter guardado a versão nova
+        cache.buscar(1L, 6L, HOJE, () -> AGENDA_ALTERADA);
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+
+        assertSame(AGENDA_ALTERADA, cache.buscar(1L, 6L, HOJE, () -> fail("Não deveria consultar o banco")));
+    }
+
+    @Test
+    void buscar_DeveConsultarNovamenteNaViradaDoDia() {
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+
+        assertSame(AGENDA_ALTERADA, cache.buscar(1L, 5L, HOJE.plusDays(1), () -> AGENDA_ALTERADA));
+        // Uma leitura atrasada do dia anterior não substitui a do dia atual
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+        assertSame(AGENDA_ALTERADA, cache.buscar(1L, 5L, HOJE.plusDays(1), () -> fail("Não deveria consultar o banco")));
+    }
+
+    @Test
+    void agendaAlterada_DeveDescartarApenasAAgendaDoUsuario() {
+        cache.buscar(1L, 5L, HOJE, () -> AGENDA);
+        cache.buscar(2L, 5L, HOJE, () -> AGENDA);
+
+        cache.agendaAlterada(new AgendaAlteradaEvent(1L));
+
+        assertSame(AGENDA_ALTERADA, cache.buscar(1L, 5L, HOJE, () -> AGENDA_ALTERADA));
+        assertSame(AGENDA, cache.buscar(2L, 5L, HOJE, () -> fail("Não deveria consultar o banco")));
+    }
+}
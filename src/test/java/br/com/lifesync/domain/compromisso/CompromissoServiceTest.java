@@ -1,8 +1,7 @@
 package br.com.lifesync.domain.compromisso;
 
-import br.com.lifesync.domain.evento.Evento;
+import br.com.lifesync.domain.ValidacaoException;
 import br.com.lifesync.domain.evento.EventoRepository;
-import br.com.lifesync.domain.tarefa.Tarefa;
 import br.com.lifesync.domain.tarefa.TarefaRepository;
 import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
@@ -11,12 +10,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CompromissoServiceTest {
@@ -30,34 +39,35 @@ class CompromissoServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private VersaoDaAgenda versaoDaAgenda;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private AgendaCache agendaCache = new AgendaCache(Duration.ofMinutes(10), 1000);
+
     @InjectMocks
     private CompromissoService compromissoService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(versaoDaAgenda.hoje()).thenReturn(LocalDate.of(2024, 12, 15));
     }
 
     @Test
     void listarCompromissosOrdenados_DeveRetornarListaOrdenada() {
         // Arrange
-        Usuario usuarioMock = mock(Usuario.class);
-        when(usuarioService.obterUsuarioLogado()).thenReturn(usuarioMock);
+        Usuario usuarioMock = usuarioLogado();
 
-        Tarefa tarefa = new Tarefa();
-        tarefa.setId(1L);
-        tarefa.setTitulo("Tarefa 1");
-        tarefa.setData(LocalDate.of(2024, 12, 15));
-        tarefa.setHora(LocalTime.of(10, 0));
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
         
-        Evento evento = new Evento();
-        evento.setId(2L);
-        evento.setTitulo("Evento 1");
-        evento.setData(LocalDate.of(2024, 12, 15));
-        evento.setHora(LocalTime.of(9, 0));
+        CompromissoDTO evento = new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento");
 
-        when(tarefaRepository.findByUsuarioAndAtivaTrue(usuarioMock)).thenReturn(List.of(tarefa));
-        when(eventoRepository.findByUsuarioAndAtivoTrue(usuarioMock)).thenReturn(List.of(evento));
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.of(evento));
 
         // Act
         List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
@@ -66,47 +76,37 @@ class CompromissoServiceTest {
         assertEquals(2, result.size());
         assertEquals("Evento 1", result.get(0).titulo()); // Primeiro compromisso deve ser o evento
         assertEquals("Tarefa 1", result.get(1).titulo()); // Segundo compromisso deve ser a tarefa
-        verify(tarefaRepository, times(1)).findByUsuarioAndAtivaTrue(usuarioMock);
-        verify(eventoRepository, times(1)).findByUsuarioAndAtivoTrue(usuarioMock);
+        verify(tarefaRepository, times(1)).buscarAtivasOrdenadasDoUsuario(1L);
+        verify(eventoRepository, times(1)).buscarAtivosOrdenadosDoUsuario(1L);
     }
 
     @Test
     void listarCompromissosOrdenados_ListaVazia() {
         // Arrange
-        Usuario usuarioMock = mock(Usuario.class);
-        when(usuarioService.obterUsuarioLogado()).thenReturn(usuarioMock);
-        when(tarefaRepository.findByUsuarioAndAtivaTrue(usuarioMock)).thenReturn(List.of());
-        when(eventoRepository.findByUsuarioAndAtivoTrue(usuarioMock)).thenReturn(List.of());
+        Usuario usuarioMock = usuarioLogado();
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.empty());
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.empty());
 
         // Act
         List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(tarefaRepository, times(1)).findByUsuarioAndAtivaTrue(usuarioMock);
-        verify(eventoRepository, times(1)).findByUsuarioAndAtivoTrue(usuarioMock);
+        verify(tarefaRepository, times(1)).buscarAtivasOrdenadasDoUsuario(1L);
+        verify(eventoRepository, times(1)).buscarAtivosOrdenadosDoUsuario(1L);
     }
 
     @Test
     void listarCompromissosOrdenados_DeveManterOrdemCorretaComDatasIguais() {
         // Arrange
-        Usuario usuarioMock = mock(Usuario.class);
-        when(usuarioService.obterUsuarioLogado()).thenReturn(usuarioMock);
+        Usuario usuarioMock = usuarioLogado();
 
-        Tarefa tarefa = new Tarefa();
-        tarefa.setId(1L);
-        tarefa.setTitulo("Tarefa 1");
-        tarefa.setData(LocalDate.of(2024, 12, 15));
-        tarefa.setHora(LocalTime.of(10, 0));
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
         
-        Evento evento = new Evento();
-        evento.setId(2L);
-        evento.setTitulo("Evento 1");
-        evento.setData(LocalDate.of(2024, 12, 15));
-        evento.setHora(LocalTime.of(8, 0));
+        CompromissoDTO evento = new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(8, 0), "evento");
 
-        when(tarefaRepository.findByUsuarioAndAtivaTrue(usuarioMock)).thenReturn(List.of(tarefa));
-        when(eventoRepository.findByUsuarioAndAtivoTrue(usuarioMock)).thenReturn(List.of(evento));
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.of(evento));
 
         // Act
         List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
@@ -126,4 +126,289 @@ class CompromissoServiceTest {
         assertThrows(RuntimeException.class, () -> compromissoService.listarCompromissosOrdenados());
         verifyNoInteractions(tarefaRepository, eventoRepository);
     }
+
+    @Test
+    void listarPaginaDeCompromissos_DeveRetornarCursorQuandoHaMaisCompromissos() {
+        // Arrange
+        Usuario usuarioMock = usuarioLogado();
+
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
+
+        CompromissoDTO evento = new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento");
+
+        when(tarefaRepository.buscarPaginaDoUsuario(eq(1L), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(tarefa));
+        when(eventoRepository.buscarPaginaDoUsuario(eq(1L), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(evento));
+
+        // Act
+        PaginaCompromissosDTO pagina = compromissoService.listarPaginaDeCompromissos(null, null, null, 1);
+
+        // Assert
+        assertEquals(1, pagina.compromissos().size());
+        assertEquals("Evento 1", pagina.compromissos().get(0).titulo());
+        assertEquals(new CursorCompromisso(LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento", 2L),
+                CursorCompromisso.decodificar(pagina.proximoCursor()));
+    }
+
+    @Test
+    void listarPaginaDeCompromissos_DeveContinuarAPartirDoCursor() {
+        // Arrange
+        Usuario usuarioMock = usuarioLogado();
+        LocalDate data = LocalDate.of(2024, 12, 15);
+        LocalTime hora = LocalTime.of(9, 0);
+        String cursor = new CursorCompromisso(data, hora, "evento", 2L).codificar();
+
+        // Act
+        PaginaCompromissosDTO pagina = compromissoService.listarPaginaDeCompromissos(null, null, cursor, 10);
+
+        // Assert
+        assertTrue(pagina.compromissos().isEmpty());
+        assertNull(pagina.proximoCursor());
+        // Eventos continuam após o id do cursor; tarefas (tipo posterior) incluem o mesmo horário
+        verify(eventoRepository).buscarPaginaDoUsuario(eq(1L), any(), any(), eq(data), eq(hora), eq(2L), any(Pageable.class));
+        verify(tarefaRepository).buscarPaginaDoUsuario(eq(1L), any(), any(), eq(data), eq(hora), eq(-1L), any(Pageable.class));
+    }
+
+    @Test
+    void listarPaginaDeCompromissos_DeveRejeitarParametrosInvalidos() {
+        assertThrows(ValidacaoException.class, () -> compromissoService.listarPaginaDeCompromissos(null, null, null, 0));
+        assertThrows(ValidacaoException.class, () -> compromissoService.listarPaginaDeCompromissos(null, null, "invalido", 10));
+        assertThrows(ValidacaoException.class, () -> compromissoService.listarPaginaDeCompromissos(
+                LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 1), null, 10));
+        verifyNoInteractions(tarefaRepository, eventoRepository);
+    }
+
+    @Test
+    void listarCompromissosOrdenados_DeveMesclarListasOrdenadasDasDuasTabelas() {
+        // Arrange
+        Usuario usuarioMock = usuarioLogado();
+
+        CompromissoDTO tarefa1 = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(8, 0), "tarefa");
+
+        CompromissoDTO tarefa2 = new CompromissoDTO(2L, "Tarefa 2", LocalDate.of(2024, 12, 17), LocalTime.of(8, 0), "tarefa");
+
+        CompromissoDTO evento = new CompromissoDTO(3L, "Evento 1", LocalDate.of(2024, 12, 16), LocalTime.of(9, 0), "evento");
+
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa1, tarefa2));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.of(evento));
+
+        // Act
+        List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
+
+        // Assert
+        assertEquals(List.of("Tarefa 1", "Evento 1", "Tarefa 2"), result.stream().map(CompromissoDTO::titulo).toList());
+    }
+
+    @Test
+    void listarCompromissosOrdenados_DeveIntercalarOcorrenciasDasSeriesExcetoAsCanceladas() {
+        // Arrange
+        usuarioLogado();
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 17), LocalTime.of(8, 0), "tarefa");
+        CompromissoRecorrenteDTO reuniao = new CompromissoRecorrenteDTO(2L, "Reunião", LocalDate.of(2024, 12, 10), LocalTime.of(9, 0),
+                "evento", "FREQ=WEEKLY;COUNT=3", List.of(LocalDate.of(2024, 12, 17)));
+
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.empty());
+        when(eventoRepository.buscarSeriesAtivasDoUsuario(eq(1L), any())).thenReturn(List.of(reuniao));
+
+        // Act
+        List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
+
+        // Assert
+        assertEquals(List.of(
+                new CompromissoDTO(2L, "Reunião", LocalDate.of(2024, 12, 10), LocalTime.of(9, 0), "evento"),
+                tarefa,
+                new CompromissoDTO(2L, "Reunião", LocalDate.of(2024, 12, 24), LocalTime.of(9, 0), "evento")), result);
+    }
+
+    @Test
+    void listarPaginaDeCompromissos_DeveExpandirSeriesApenasAPartirDoCursor() {
+        // Arrange
+        usuarioLogado();
+        CompromissoRecorrenteDTO diaria = new CompromissoRecorrenteDTO(5L, "Remédio", LocalDate.of(2024, 12, 1), LocalTime.of(10, 0),
+                "tarefa", "FREQ=DAILY", List.of());
+        when(tarefaRepository.buscarSeriesAtivasDoUsuario(eq(1L), any())).thenReturn(List.of(diaria));
+        String cursor = new CursorCompromisso(LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa", 5L).codificar();
+
+        // Act
+        PaginaCompromissosDTO pagina = compromissoService.listarPaginaDeCompromissos(null, null, cursor, 2);
+
+        // Assert
+        assertEquals(List.of("2024-12-16", "2024-12-17"), pagina.compromissos().stream().map(CompromissoDTO::data).toList());
+        assertEquals(new CursorCompromisso(LocalDate.of(2024, 12, 17), LocalTime.of(10, 0), "tarefa", 5L),
+                CursorCompromisso.decodificar(pagina.proximoCursor()));
+    }
+
+    @Test
+    void listarCompromissosOrdenados_DeveUsarCacheEnquantoAVersaoNaoMuda() {
+        // Arrange
+        usuarioLogado();
+        when(versaoDaAgenda.versao(1L)).thenReturn(7L);
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.empty());
+
+        // Act
+        List<CompromissoDTO> primeira = compromissoService.listarCompromissosOrdenados();
+        List<CompromissoDTO> segunda = compromissoService.listarCompromissosOrdenados();
+
+        // Assert
+        assertSame(primeira, segunda);
+        verify(tarefaRepository, times(1)).buscarAtivasOrdenadasDoUsuario(1L);
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(1, agendaCache.getAcertos());
+        assertEquals(1, agendaCache.getFalhas());
+    }
+
+    @Test
+    void listarCompromissosOrdenados_DeveConsultarNovamenteQuandoAVersaoMuda() {
+        // Arrange
+        usuarioLogado();
+        when(versaoDaAgenda.versao(1L)).thenReturn(7L, 8L);
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
+        CompromissoDTO evento = new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento");
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa), Stream.of(tarefa));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.empty(), Stream.of(evento));
+
+        // Act
+        compromissoService.listarCompromissosOrdenados();
+        List<CompromissoDTO> result = compromissoService.listarCompromissosOrdenados();
+
+        // Assert
+        assertEquals(List.of("Evento 1", "Tarefa 1"), result.stream().map(CompromissoDTO::titulo).toList());
+        verify(tarefaRepository, times(2)).buscarAtivasOrdenadasDoUsuario(1L);
+        assertEquals(0, agendaCache.getAcertos());
+        assertEquals(2, agendaCache.getFalhas());
+    }
+
+    @Test
+    void listarCompromissosOrdenados_DeveConsultarNovamenteNaViradaDoDia() {
+        // Arrange
+        usuarioLogado();
+        when(versaoDaAgenda.versao(1L)).thenReturn(7L);
+        when(versaoDaAgenda.hoje()).thenReturn(LocalDate.of(2024, 12, 15), LocalDate.of(2024, 12, 16));
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.empty(), Stream.empty());
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.empty(), Stream.empty());
+
+        // Act
+        compromissoService.listarCompromissosOrdenados();
+        compromissoService.listarCompromissosOrdenados();
+
+        // Assert: o horizonte das séries acompanha o dia
+        verify(tarefaRepository).buscarSeriesAtivasDoUsuario(1L, LocalDate.of(2025, 12, 15));
+        verify(tarefaRepository).buscarSeriesAtivasDoUsuario(1L, LocalDate.of(2025, 12, 16));
+        assertEquals(0, agendaCache.getAcertos());
+        assertEquals(2, agendaCache.getFalhas());
+    }
+
+    @Test
+    void percorrerAgenda_DeveEntregarCompromissosEmOrdemEFecharAsConsultas() {
+        // Arrange
+        CompromissoDTO tarefa = new CompromissoDTO(1L, "Tarefa 1", LocalDate.of(2024, 12, 15), LocalTime.of(10, 0), "tarefa");
+        CompromissoDTO evento = new CompromissoDTO(2L, "Evento 1", LocalDate.of(2024, 12, 15), LocalTime.of(9, 0), "evento");
+        List<String> fechadas = new ArrayList<>();
+        when(tarefaRepository.buscarAtivasOrdenadasDoUsuario(1L)).thenReturn(Stream.of(tarefa).onClose(() -> fechadas.add("tarefas")));
+        when(eventoRepository.buscarAtivosOrdenadosDoUsuario(1L)).thenReturn(Stream.of(evento).onClose(() -> fechadas.add("eventos")));
+        List<String> recebidos = new ArrayList<>();
+
+        // Act
+        compromissoService.percorrerAgenda(1L, compromisso -> recebidos.add(compromisso.titulo()));
+
+        // Assert
+        assertEquals(List.of("Evento 1", "Tarefa 1"), recebidos);
+        assertEquals(List.of("tarefas", "eventos"), fechadas);
+        verifyNoInteractions(usuarioService);
+    }
+
+    @Test
+    void sincronizar_SemTokenDeveTrazerTodosOsCompromissosAtivos() {
+        // Arrange
+        usuarioLogado();
+        CompromissoAlteradoDTO tarefa = new CompromissoAlteradoDTO(1L, "Tarefa 1", "2024-12-15", "10:00", "tarefa", false, true, 0L, null, List.of());
+        CompromissoAlteradoDTO evento = new CompromissoAlteradoDTO(2L, "Evento 1", "2024-12-15", "09:00", "evento", false, true, 0L, null, List.of());
+        when(tarefaRepository.buscarAlteradasDoUsuario(1L, Instant.EPOCH, List.of(true))).thenReturn(List.of(tarefa));
+        when(eventoRepository.buscarAlteradosDoUsuario(1L, Instant.EPOCH, List.of(true))).thenReturn(List.of(evento));
+        Instant antes = Instant.now();
+
+        // Act
+        SincronizacaoDTO result = compromissoService.sincronizar(null);
+
+        // Assert
+        assertEquals(List.of(tarefa, evento), result.alterados());
+        Instant proximo = TokenSincronizacao.decodificar(result.token()).desde();
+        assertTrue(proximo.isBefore(antes), "O token deve recuar a margem para cobrir escritas ainda não confirmadas");
+        assertTrue(proximo.isAfter(antes.minusSeconds(60)));
+    }
+
+    @Test
+    void sincronizar_ComTokenDeveTrazerAlteracoesInclusiveExclusoes() {
+        // Arrange
+        usuarioLogado();
+        Instant desde = Instant.parse("2024-12-15T10:00:00Z");
+        CompromissoAlteradoDTO excluida = new CompromissoAlteradoDTO(1L, "Tarefa 1", "2024-12-15", "10:00", "tarefa", false, false, 1L, null, List.of());
+        when(tarefaRepository.buscarAlteradasDoUsuario(1L, desde, List.of(true, false))).thenReturn(List.of(excluida));
+        when(eventoRepository.buscarAlteradosDoUsuario(1L, desde, List.of(true, false))).thenReturn(List.of());
+
+        // Act
+        SincronizacaoDTO result = compromissoService.sincronizar(new TokenSincronizacao(desde).codificar());
+
+        // Assert
+        assertEquals(List.of(excluida), result.alterados());
+        assertTrue(TokenSincronizacao.decodificar(result.token()).desde().isAfter(desde));
+    }
+
+    @Test
+    void sincronizar_DeveTrazerNaSincronizacaoSeguinteEscritaConfirmadaDepoisDaLeitura() {
+        // Arrange
+        usuarioLogado();
+        CompromissoAlteradoDTO tarefa = new CompromissoAlteradoDTO(1L, "Tarefa 1", "2024-12-15", "10:00", "tarefa", false, true, 1L, null, List.of());
+        // A tarefa é gravada (atualizadoEm) pouco antes da leitura, mas a transação só é confirmada depois dela
+        Instant gravadaEm = Instant.now().minusSeconds(1);
+        boolean[] confirmada = {false};
+        when(tarefaRepository.buscarAlteradasDoUsuario(eq(1L), any(), any())).thenAnswer(invocacao ->
+                confirmada[0] && !gravadaEm.isBefore(invocacao.getArgument(1)) ? List.of(tarefa) : List.of());
+        when(eventoRepository.buscarAlteradosDoUsuario(eq(1L), any(), any())).thenReturn(List.of());
+
+        // Act
+        SincronizacaoDTO primeira = compromissoService.sincronizar(null);
+        confirmada[0] = true;
+        SincronizacaoDTO seguinte = compromissoService.sincronizar(primeira.token());
+
+        // Assert
+        assertEquals(List.of(), primeira.alterados());
+        assertEquals(List.of(tarefa), seguinte.alterados());
+    }
+
+    @Test
+    void sincronizar_DeveRecuarOTokenPelaMargemConfigurada() {
+        // Arrange
+        usuarioLogado();
+        ReflectionTestUtils.setField(compromissoService, "margemDeSincronizacao", Duration.ofMinutes(2));
+        Instant antes = Instant.now();
+
+        // Act
+        SincronizacaoDTO result = compromissoService.sincronizar(null);
+        Instant depois = Instant.now();
+
+        // Assert
+        Instant proximo = TokenSincronizacao.decodificar(result.token()).desde();
+        assertFalse(proximo.isBefore(antes.minus(Duration.ofMinutes(2))));
+        assertFalse(proximo.isAfter(depois.minus(Duration.ofMinutes(2))));
+    }
+
+    @Test
+    void sincronizar_DeveRejeitarTokenInvalido() {
+        usuarioLogado();
+
+        assertThrows(ValidacaoException.class, () -> compromissoService.sincronizar("nao-e-um-token"));
+        verifyNoInteractions(tarefaRepository, eventoRepository);
+    }
+
+    private Usuario usuarioLogado() {
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(1L);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+        return usuario;
+    }
 }
@@ -0,0 +1,56 @@
+package br.com.lifesync.domain.compromisso;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MesclaOrdenadaTest {
+
+    @Test
+    void mesclar_DeveIntercalarFontesOrdenadas() {
+        Stream<Integer> resultado = MesclaOrdenada.mesclar(Comparator.naturalOrder(),
+                Stream.of(1, 4, 7), Stream.of(2, 5, 8), Stream.of(3, 6, 9));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), resultado.toList());
+    }
+
+    @Test
+    void mesclar_DeveManterOrdemDasFontesEmEmpates() {
+        Stream<String> resultado = MesclaOrdenada.mesclar(Comparator.comparing(String::length),
+                Stream.of("a1", "bbb1"), Stream.of("a2", "bbb2"));
+
+        assertEquals(List.of("a1", "a2", "bbb1", "bbb2"), resultado.toList());
+    }
+
+    @Test
+    void mesclar_DeveConsumirApenasOsElementosNecessarios() {
+        List<Integer> lidos = new ArrayList<>();
+        Stream<Integer> fonte1 = Stream.iterate(0, i -> i + 2).peek(lidos::add);
+        Stream<Integer> fonte2 = Stream.iterate(1, i -> i + 2).peek(lidos::add);
+
+        List<Integer> primeiros = MesclaOrdenada.mesclar(Comparator.<Integer>naturalOrder(), fonte1, fonte2)
+                .limit(4)
+                .toList();
+
+        assertEquals(List.of(0, 1, 2, 3), primeiros);
+        assertTrue(lidos.size() <= 6);
+    }
+
+    @Test
+    void mesclar_DeveFecharAsFontes() {
+        AtomicBoolean fonteFechada = new AtomicBoolean();
+
+        try (Stream<Integer> resultado = MesclaOrdenada.mesclar(Comparator.naturalOrder(),
+                Stream.of(1).onClose(() -> fonteFechada.set(true)), Stream.<Integer>empty())) {
+            resultado.toList();
+        }
+
+        assertTrue(fonteFechada.get());
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.ValidacaoException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegraDeRecorrenciaTest {
+
+    private static final LocalDate SEGUNDA = LocalDate.of(2025, 1, 6);
+
+    @Test
+    void ocorrencias_SemanalComDiasDeveGerarCadaDiaNaOrdem() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=WEEKLY;BYDAY=WE,MO;COUNT=4");
+
+        assertEquals(List.of(SEGUNDA, SEGUNDA.plusDays(2), SEGUNDA.plusDays(7), SEGUNDA.plusDays(9)),
+                datas(regra.ocorrencias(SEGUNDA, SEGUNDA, LocalDate.of(2025, 12, 31))));
+    }
+
+    @Test
+    void ocorrencias_SemanalDeveIncluirADataInicialForaDosDias() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=WEEKLY;BYDAY=WE;COUNT=3");
+
+        // A segunda-feira inicial é a primeira ocorrência e conta para o COUNT, mas não se repete nas semanas seguintes
+        assertEquals(List.of(SEGUNDA, SEGUNDA.plusDays(2), SEGUNDA.plusDays(9)),
+                datas(regra.ocorrencias(SEGUNDA, SEGUNDA, LocalDate.of(2025, 12, 31))));
+        assertTrue(regra.ocorreEm(SEGUNDA, SEGUNDA));
+        assertFalse(regra.ocorreEm(SEGUNDA, SEGUNDA.plusDays(7)));
+        assertEquals(List.of(SEGUNDA.plusDays(9)),
+                datas(regra.ocorrencias(SEGUNDA, SEGUNDA.plusDays(3), LocalDate.of(2025, 12, 31))));
+    }
+
+    @Test
+    void ocorrencias_ComIntervaloDeveRespeitarOPeriodoAPartirDaPrimeiraOcorrencia() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=WEEKLY;INTERVAL=2");
+
+        // A consulta começa no meio da série: só as semanas alternadas a partir de 06/01 entram
+        assertEquals(List.of(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 17)),
+                datas(regra.ocorrencias(SEGUNDA, LocalDate.of(2025, 2, 25), LocalDate.of(2025, 3, 20))));
+    }
+
+    @Test
+    void ocorrencias_MensalDevePularMesesSemODia() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=MONTHLY;UNTIL=20250531");
+        LocalDate inicio = LocalDate.of(2025, 1, 31);
+
+        assertEquals(List.of(inicio, LocalDate.of(2025, 3, 31), LocalDate.of(2025, 5, 31)),
+                datas(regra.ocorrencias(inicio, inicio, LocalDate.of(2025, 12, 31))));
+    }
+
+    @Test
+    void ocorrencias_ContagemDeveIncluirOcorrenciasAnterioresAoPeriodo() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=DAILY;COUNT=5");
+
+        assertEquals(List.of(SEGUNDA.plusDays(3), SEGUNDA.plusDays(4)),
+                datas(regra.ocorrencias(SEGUNDA, SEGUNDA.plusDays(3), SEGUNDA.plusDays(30))));
+    }
+
+    @Test
+    void ocorrencias_SemTerminoDeveSerCalculadaSobDemanda() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=DAILY");
+
+        Iterator<LocalDate> ocorrencias = regra.ocorrencias(SEGUNDA, LocalDate.of(9000, 1, 1), LocalDate.MAX);
+
+        assertEquals(LocalDate.of(9000, 1, 1), ocorrencias.next());
+        assertEquals(LocalDate.of(9000, 1, 2), ocorrencias.next());
+    }
+
+    @Test
+    void ocorreEm_DeveIndicarSeADataPertenceASerie() {
+        RegraDeRecorrencia regra = RegraDeRecorrencia.decodificar("FREQ=YEARLY");
+        LocalDate inicio = LocalDate.of(2024, 2, 29);
+
+        assertTrue(regra.ocorreEm(inicio, LocalDate.of(2028, 2, 29)));
+        assertFalse(regra.ocorreEm(inicio, LocalDate.of(2025, 2, 28)));
+        assertFalse(regra.ocorreEm(inicio, LocalDate.of(2023, 2, 28)));
+    }
+
+    @Test
+    void normalizar_DeveGerarFormaCanonica() {
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,FR;UNTIL=20251231",
+                RegraDeRecorrencia.normalizar("RRULE:freq=weekly;byday=FR,MO;interval=2;until=20251231"));
+        assertEquals("FREQ=DAILY", RegraDeRecorrencia.normalizar("FREQ=DAILY;INTERVAL=1"));
+        assertNull(RegraDeRecorrencia.normalizar(" "));
+    }
+
+    @Test
+    void decodificar_DeveRejeitarRegrasForaDoSubconjuntoSuportado() {
+        for (String regra : List.of("INTERVAL=2", "FREQ=HOURLY", "FREQ=DAILY;COUNT=2;UNTIL=20251231", "FREQ=MONTHLY;BYDAY=MO",
+                "FREQ=WEEKLY;BYSETPOS=1", "FREQ=DAILY;INTERVAL=0", "FREQ=DAILY;UNTIL=2025-12-31", "FREQ=DAILY;COUNT=1001")) {
+            assertThrows(ValidacaoException.class, () -> RegraDeRecorrencia.decodificar(regra), regra);
+        }
+    }
+
+    private static List<LocalDate> datas(Iterator<LocalDate> ocorrencias) {
+        List<LocalDate> datas = new ArrayList<>();
+        ocorrencias.forEachRemaining(datas::add);
+        return datas;
+    }
+}
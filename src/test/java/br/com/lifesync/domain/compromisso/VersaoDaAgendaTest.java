@@ -0,0 +1,78 @@
+package br.com.lifesync.domain.compromisso;
+
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.domain.usuario.UsuarioRepository;
+import br.com.lifesync.domain.usuario.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VersaoDaAgendaTest {
+
+    private UsuarioService usuarioService;
+
+    private UsuarioRepository usuarioRepository;
+
+    private final AtomicReference<LocalDate> hoje = new AtomicReference<>(LocalDate.of(2024, 12, 15));
+
+    private VersaoDaAgenda versaoDaAgenda;
+
+    @BeforeEach
+    void setUp() {
+        usuarioService = mock(UsuarioService.class);
+        usuarioRepository = mock(UsuarioRepository.class);
+        versaoDaAgenda = new VersaoDaAgenda(usuarioService, usuarioRepository, hoje::get);
+    }
+
+    @Test
+    void versao_DeveSerAGravadaNoBanco() {
+        when(usuarioRepository.buscarVersaoDaAgenda(1L)).thenReturn(7L);
+
+        assertEquals(7L, versaoDaAgenda.versao(1L));
+        assertEquals(0L, versaoDaAgenda.versao(2L));
+    }
+
+    @Test
+    void agendaAlterada_DeveIncrementarApenasAVersaoDoUsuario() {
+        versaoDaAgenda.agendaAlterada(new AgendaAlteradaEvent(1L));
+
+        verify(usuarioRepository).incrementarVersaoDaAgenda(1L);
+        verifyNoMoreInteractions(usuarioRepository);
+    }
+
+    @Test
+    void etagDoUsuarioLogado_DeveMudarQuandoAVersaoMudar() {
+        usuarioLogado();
+        // A segunda versão pode ter sido gravada por outra instância da aplicação
+        when(usuarioRepository.buscarVersaoDaAgenda(1L)).thenReturn(7L, 7L, 8L);
+
+        String etag = versaoDaAgenda.etagDoUsuarioLogado();
+        assertEquals(etag, versaoDaAgenda.etagDoUsuarioLogado());
+        assertTrue(etag.startsWith("W/\"") && etag.endsWith("\""));
+
+        assertNotEquals(etag, versaoDaAgenda.etagDoUsuarioLogado());
+    }
+
+    @Test
+    void etagDoUsuarioLogado_DeveMudarNaViradaDoDiaMesmoSemAlteracoes() {
+        usuarioLogado();
+        when(usuarioRepository.buscarVersaoDaAgenda(1L)).thenReturn(7L);
+        String etag = versaoDaAgenda.etagDoUsuarioLogado();
+
+        hoje.set(hoje.get().plusDays(1));
+
+        assertNotEquals(etag, versaoDaAgenda.etagDoUsuarioLogado());
+        assertEquals(7L, versaoDaAgenda.versao(1L));
+    }
+
+    private void usuarioLogado() {
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(1L);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+    }
+}
@@ -1,16 +1,26 @@
 package br.com.lifesync.domain.evento;
 
+import br.com.lifesync.domain.VersaoDivergenteException;
+import br.com.lifesync.domain.compromisso.AgendaAlteradaEvent;
+import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class EventoServiceTest {
@@ -20,6 +30,9 @@ class EventoServiceTest {
     
     @Mock
     private UsuarioService usuarioService;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
     
     @InjectMocks
     private EventoService eventoService;
@@ -45,35 +58,74 @@ class EventoServiceTest {
     }
 
     @Test
-    void editarEvento_deveAtualizarEventoExistente() {
-        Evento eventoExistente = new Evento(cadastroEventoDTO);
-        when(eventoRepository.findById(1L)).thenReturn(Optional.of(eventoExistente));
-        eventoService.editarEvento(1L, edicaoEventoDTO);
-        
-        assertEquals("Evento Editado", eventoExistente.getTitulo());
-        assertEquals("2024-12-16", eventoExistente.getData().toString());
-        assertEquals("11:00", eventoExistente.getHora().toString());
-        assertEquals("Local Editado", eventoExistente.getLocal());
-        
-        verify(eventoRepository, times(1)).save(eventoExistente);
+    void editarEvento_deveAtualizarEventoDoUsuarioComUmUnicoUpdate() {
+        usuarioLogadoComId(7L);
+        when(eventoRepository.editarDoUsuario(eq(1L), eq(7L), eq("Evento Editado"), eq(LocalDate.of(2024, 12, 16)), eq(LocalTime.of(11, 0)),
+                eq("Local Editado"), any(Instant.class))).thenReturn(1);
+
+        assertTrue(eventoService.editarEvento(1L, edicaoEventoDTO, null));
+        verify(eventoRepository, never()).findById(any());
     }
 
+    @Test
+    void editarEvento_deveLancarExcecaoQuandoEventoEstaEmOutraVersao() {
+        usuarioLogadoComId(7L);
+        when(eventoRepository.editarDoUsuarioNaVersao(eq(1L), eq(7L), eq(List.of(3L)), eq("Evento Editado"), eq(LocalDate.of(2024, 12, 16)),
+                eq(LocalTime.of(11, 0)), eq("Local Editado"), any(Instant.class))).thenReturn(0);
+        when(eventoRepository.existsByIdAndUsuarioId(1L, 7L)).thenReturn(true);
+
+        assertThrows(VersaoDivergenteException.class, () -> eventoService.editarEvento(1L, edicaoEventoDTO, List.of(3L)));
+        verify(eventos, never()).publishEvent(any());
+    }
 
     @Test
-    void excluirEvento_deveDesativarEventoExistente() {
-        Evento eventoExistente = new Evento(cadastroEventoDTO);
-        when(eventoRepository.findById(1L)).thenReturn(Optional.of(eventoExistente));
-        eventoService.excluirEvento(1L);
-        assertFalse(eventoExistente.isAtivo());
+    void excluirEvento_deveDesativarEventoDoUsuario() {
+        usuarioLogadoComId(7L);
+        when(eventoRepository.desativarDoUsuario(eq(1L), eq(7L), any(Instant.class))).thenReturn(1);
+
+        assertTrue(eventoService.excluirEvento(1L));
+        verify(eventos).publishEvent(new AgendaAlteradaEvent(7L));
     }
 
+    @Test
+    void excluirEvento_deveRetornarFalsoQuandoEventoNaoEhDoUsuario() {
+        usuarioLogadoComId(7L);
+        when(eventoRepository.desativarDoUsuario(eq(1L), eq(7L), any(Instant.class))).thenReturn(0);
+
+        assertFalse(eventoService.excluirEvento(1L));
+        verify(eventos, never()).publishEvent(any());
+    }
 
     @Test
     void obterEvento_deveRetornarEventoExistente() {
+        usuarioLogadoComId(7L);
         Evento eventoExistente = new Evento(cadastroEventoDTO);
-        when(eventoRepository.findById(1L)).thenReturn(Optional.of(eventoExistente));
+        when(eventoRepository.findByIdAndUsuarioId(1L, 7L)).thenReturn(Optional.of(eventoExistente));
         Optional<Evento> evento = eventoService.obterEvento(1L);
         assertTrue(evento.isPresent());
         assertEquals(eventoExistente, evento.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void adicionarEventos_deveSalvarTodosComOUsuarioLogado() {
+        Usuario usuario = new Usuario();
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+
+        eventoService.adicionarEventos(List.of(
+                new CadastroEventoDTO("Evento 1", "2024-12-15", "10:00", "Local 1"),
+                new CadastroEventoDTO("Evento 2", "2024-12-16", "11:00", "Local 2")));
+
+        ArgumentCaptor<List<Evento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventoRepository).saveAll(captor.capture());
+        List<Evento> eventos = captor.getValue();
+        assertEquals(2, eventos.size());
+        assertTrue(eventos.stream().allMatch(evento -> evento.getUsuario() == usuario));
+        verify(usuarioService, times(1)).obterUsuarioLogado();
+    }
+
+    private void usuarioLogadoComId(Long id) {
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(id);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+    }
+}
@@ -1,14 +1,25 @@
 package br.com.lifesync.domain.tarefa;
 
+import br.com.lifesync.domain.ValidacaoException;
+import br.com.lifesync.domain.VersaoDivergenteException;
+import br.com.lifesync.domain.compromisso.AgendaAlteradaEvent;
+import br.com.lifesync.domain.usuario.Usuario;
 import br.com.lifesync.domain.usuario.UsuarioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +31,9 @@ class TarefaServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private ApplicationEventPublisher eventos;
+
     @InjectMocks
     private TarefaService tarefaService;
 
@@ -29,55 +43,163 @@ class TarefaServiceTest {
     }
 
     @Test
-    void editarTarefa_deveAtualizarTarefaExistente() {
+    void editarTarefa_deveAtualizarTarefaDoUsuarioComUmUnicoUpdate() {
+        usuarioLogadoComId(7L);
         EdicaoTarefaDTO dto = new EdicaoTarefaDTO("Tarefa Editada", "2024-12-16", "12:00");
-        
-        Tarefa tarefaExistente = new Tarefa(new CadastroTarefaDTO("Tarefa Teste", "2024-12-15", "10:00"));
-        tarefaExistente.setId(1L);
-        
-        when(tarefaRepository.findById(1L)).thenReturn(Optional.of(tarefaExistente));
-        
-        tarefaService.editarTarefa(1L, dto);
-        
-        assertEquals("Tarefa Editada", tarefaExistente.getTitulo());
-        assertEquals("2024-12-16", tarefaExistente.getData().toString());
-        assertEquals("12:00", tarefaExistente.getHora().toString());
+        when(tarefaRepository.editarDoUsuario(eq(1L), eq(7L), eq("Tarefa Editada"), eq(LocalDate.of(2024, 12, 16)), eq(LocalTime.of(12, 0)),
+                any(Instant.class)))
+                .thenReturn(1);
+
+        assertTrue(tarefaService.editarTarefa(1L, dto, null));
+        verify(tarefaRepository, never()).findById(any());
     }
 
     @Test
-    void excluirTarefa_deveDesativarTarefaExistente() {
-        Tarefa tarefaExistente = new Tarefa(new CadastroTarefaDTO("Tarefa Teste", "2024-12-15", "10:00"));
-        tarefaExistente.setId(1L);
+    void editarTarefa_comVersaoEsperadaDeveEditarApenasNaquelaVersao() {
+        usuarioLogadoComId(7L);
+        EdicaoTarefaDTO dto = new EdicaoTarefaDTO("Tarefa Editada", null, null);
+        when(tarefaRepository.editarDoUsuarioNaVersao(eq(1L), eq(7L), eq(List.of(3L)), eq("Tarefa Editada"), isNull(), isNull(),
+                any(Instant.class))).thenReturn(1);
+
+        assertTrue(tarefaService.editarTarefa(1L, dto, List.of(3L)));
+        verify(tarefaRepository, never()).existsByIdAndUsuarioId(any(), any());
+        verify(eventos).publishEvent(new AgendaAlteradaEvent(7L));
+    }
 
-        when(tarefaRepository.findById(1L)).thenReturn(Optional.of(tarefaExistente));
+    @Test
+    void editarTarefa_deveLancarExcecaoQuandoTarefaEstaEmOutraVersao() {
+        usuarioLogadoComId(7L);
+        EdicaoTarefaDTO dto = new EdicaoTarefaDTO("Tarefa Editada", null, null);
+        when(tarefaRepository.editarDoUsuarioNaVersao(eq(1L), eq(7L), eq(List.of(3L)), eq("Tarefa Editada"), isNull(), isNull(),
+                any(Instant.class))).thenReturn(0);
+        when(tarefaRepository.existsByIdAndUsuarioId(1L, 7L)).thenReturn(true);
+
+        assertThrows(VersaoDivergenteException.class, () -> tarefaService.editarTarefa(1L, dto, List.of(3L)));
+        verify(eventos, never()).publishEvent(any());
+    }
 
-        tarefaService.excluirTarefa(1L);
+    @Test
+    void editarTarefa_comVersaoEsperadaDeveRetornarFalsoQuandoTarefaNaoExiste() {
+        usuarioLogadoComId(7L);
+        when(tarefaRepository.existsByIdAndUsuarioId(1L, 7L)).thenReturn(false);
 
-        assertFalse(tarefaExistente.isAtiva());
+        // Nenhuma versão aceita (If-Match só com ETags fracos): não há o que atualizar
+        assertFalse(tarefaService.editarTarefa(1L, new EdicaoTarefaDTO("Tarefa Editada", null, null), List.of()));
+        verify(tarefaRepository, never()).editarDoUsuarioNaVersao(any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
-    void marcarTarefaComoConcluida_deveConcluirTarefaExistente() {
-        Tarefa tarefaExistente = new Tarefa(new CadastroTarefaDTO("Tarefa Teste", "2024-12-15", "10:00"));
-        tarefaExistente.setId(1L);
+    void editarTarefa_deveManterCamposNaoInformados() {
+        usuarioLogadoComId(7L);
+        when(tarefaRepository.editarDoUsuario(eq(1L), eq(7L), eq("Tarefa Editada"), isNull(), isNull(), any(Instant.class))).thenReturn(1);
+
+        assertTrue(tarefaService.editarTarefa(1L, new EdicaoTarefaDTO("Tarefa Editada", null, null), null));
+    }
 
-        when(tarefaRepository.findById(1L)).thenReturn(Optional.of(tarefaExistente));
+    @Test
+    void excluirTarefa_deveDesativarTarefaDoUsuario() {
+        usuarioLogadoComId(7L);
+        when(tarefaRepository.desativarDoUsuario(eq(1L), eq(7L), any(Instant.class))).thenReturn(1);
+
+        assertTrue(tarefaService.excluirTarefa(1L));
+    }
 
-        tarefaService.marcarTarefaComoConcluida(1L);
+    @Test
+    void marcarTarefaComoConcluida_deveConcluirTarefaDoUsuario() {
+        usuarioLogadoComId(7L);
+        when(tarefaRepository.concluirDoUsuario(eq(1L), eq(7L), any(Instant.class))).thenReturn(1);
+
+        assertTrue(tarefaService.marcarTarefaComoConcluida(1L));
+        verify(eventos).publishEvent(new AgendaAlteradaEvent(7L));
+    }
+
+    @Test
+    void marcarTarefaComoConcluida_deveRetornarFalsoQuandoTarefaNaoEhDoUsuario() {
+        usuarioLogadoComId(7L);
+        when(tarefaRepository.concluirDoUsuario(eq(1L), eq(7L), any(Instant.class))).thenReturn(0);
 
-        assertTrue(tarefaExistente.isConcluida());
+        assertFalse(tarefaService.marcarTarefaComoConcluida(1L));
+        verify(eventos, never()).publishEvent(any());
     }
 
     @Test
     void obterTarefa_deveRetornarTarefaExistente() {
+        usuarioLogadoComId(7L);
         Tarefa tarefaExistente = new Tarefa(new CadastroTarefaDTO("Tarefa Teste", "2024-12-15", "10:00"));
         tarefaExistente.setId(1L);
 
-        when(tarefaRepository.findById(1L)).thenReturn(Optional.of(tarefaExistente));
+        when(tarefaRepository.findByIdAndUsuarioId(1L, 7L)).thenReturn(Optional.of(tarefaExistente));
 
         Optional<Tarefa> tarefa = tarefaService.obterTarefa(1L);
 
         assertTrue(tarefa.isPresent());
         assertEquals(1L, tarefa.get().getId());
     }
+
+    @Test
+    void adicionarTarefa_deveGuardarARecorrenciaNormalizada() {
+        usuarioLogadoComId(7L);
+
+        tarefaService.adicionarTarefa(new CadastroTarefaDTO("Academia", "2025-01-06", "07:00", "freq=weekly;byday=WE,MO"));
+
+        ArgumentCaptor<Tarefa> captor = ArgumentCaptor.forClass(Tarefa.class);
+        verify(tarefaRepository).save(captor.capture());
+        assertEquals("FREQ=WEEKLY;BYDAY=MO,WE", captor.getValue().getRecorrencia());
+    }
+
+    @Test
+    void adicionarTarefa_deveRejeitarRecorrenciaInvalida() {
+        usuarioLogadoComId(7L);
+
+        assertThrows(ValidacaoException.class,
+                () -> tarefaService.adicionarTarefa(new CadastroTarefaDTO("Academia", "2025-01-06", "07:00", "FREQ=HOURLY")));
+        verify(tarefaRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelarOcorrencia_deveRegistrarApenasDatasDaSerie() {
+        usuarioLogadoComId(7L);
+        Tarefa serie = new Tarefa(new CadastroTarefaDTO("Academia", "2025-01-06", "07:00", "FREQ=WEEKLY"));
+        when(tarefaRepository.findByIdAndUsuarioId(1L, 7L)).thenReturn(Optional.of(serie));
+
+        assertTrue(tarefaService.cancelarOcorrencia(1L, LocalDate.of(2025, 1, 13)));
+        assertFalse(tarefaService.cancelarOcorrencia(1L, LocalDate.of(2025, 1, 14)));
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 13)), serie.getExcecoes());
+        verify(eventos, times(1)).publishEvent(new AgendaAlteradaEvent(7L));
+    }
+
+    @Test
+    void cancelarOcorrencia_deveRetornarFalsoParaTarefaSemRecorrencia() {
+        usuarioLogadoComId(7L);
+        Tarefa tarefa = new Tarefa(new CadastroTarefaDTO("Tarefa", "2025-01-06", "07:00"));
+        when(tarefaRepository.findByIdAndUsuarioId(1L, 7L)).thenReturn(Optional.of(tarefa));
+
+        assertFalse(tarefaService.cancelarOcorrencia(1L, LocalDate.of(2025, 1, 6)));
+        verify(eventos, never()).publishEvent(any());
+    }
+
+    @Test
+    void adicionarTarefas_deveSalvarTodosComOUsuarioLogado() {
+        Usuario usuario = new Usuario();
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+
+        tarefaService.adicionarTarefas(List.of(
+                new CadastroTarefaDTO("Tarefa 1", "2024-12-15", "10:00"),
+                new CadastroTarefaDTO("Tarefa 2", "2024-12-16", "11:00")));
+
+        ArgumentCaptor<List<Tarefa>> captor = ArgumentCaptor.forClass(List.class);
+        verify(tarefaRepository).saveAll(captor.capture());
+        List<Tarefa> tarefas = captor.getValue();
+        assertEquals(2, tarefas.size());
+        assertTrue(tarefas.stream().allMatch(tarefa -> tarefa.getUsuario() == usuario));
+        verify(usuarioService, times(1)).obterUsuarioLogado();
+        verify(eventos, times(1)).publishEvent(any(AgendaAlteradaEvent.class));
+    }
+
+    private void usuarioLogadoComId(Long id) {
+        Usuario usuario = mock(Usuario.class);
+        when(usuario.getId()).thenReturn(id);
+        when(usuarioService.obterUsuarioLogado()).thenReturn(usuario);
+    }
 }
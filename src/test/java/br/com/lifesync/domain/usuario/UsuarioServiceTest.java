@@ -0,0 +1,120 @@
+package br.com.lifesync.domain.usuario;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UsuarioServiceTest {
+
+    @Mock
+    private UsuarioRepository repository;
+
+    @Spy
+    private UsuarioCache cache = new UsuarioCache(Duration.ofMinutes(5), 100);
+
+    @InjectMocks
+    private UsuarioService usuarioService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void buscarPorEmail_DeveConsultarBancoApenasNaPrimeiraBusca() {
+        Usuario usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+        when(repository.findByEmail("user@example.com")).thenReturn(usuario);
+
+        Usuario primeiraBusca = usuarioService.buscarPorEmail("user@example.com");
+        Usuario segundaBusca = usuarioService.buscarPorEmail("user@example.com");
+
+        assertSame(usuario, primeiraBusca);
+        assertSame(usuario, segundaBusca);
+        verify(repository, times(1)).findByEmail("user@example.com");
+        assertEquals(1, cache.getAcertos());
+        assertEquals(1, cache.getFalhas());
+    }
+
+    @Test
+    void buscarPorEmail_NaoDeveArmazenarUsuarioInexistente() {
+        when(repository.findByEmail("naoexiste@example.com")).thenReturn(null);
+
+        assertNull(usuarioService.buscarPorEmail("naoexiste@example.com"));
+        assertNull(usuarioService.buscarPorEmail("naoexiste@example.com"));
+
+        verify(repository, times(2)).findByEmail("naoexiste@example.com");
+    }
+
+    @Test
+    void buscarPorEmail_DeveRecarregarUsuarioAposInvalidacao() {
+        Usuario usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+        when(repository.findByEmail("user@example.com")).thenReturn(usuario);
+
+        usuarioService.buscarPorEmail("user@example.com");
+        cache.invalidar(usuario);
+        usuarioService.buscarPorEmail("user@example.com");
+
+        verify(repository, times(2)).findByEmail("user@example.com");
+    }
+
+    @Test
+    void buscarPorEmail_DeveRecarregarUsuarioAposTrocaDeEmail() {
+        Usuario usuario = spy(new Usuario("User", "antigo@example.com", "encodedPassword", Role.USUARIO));
+        when(usuario.getId()).thenReturn(1L);
+        when(repository.findByEmail("antigo@example.com")).thenReturn(usuario, (Usuario) null);
+
+        usuarioService.buscarPorEmail("antigo@example.com");
+        usuario.setEmail("novo@example.com");
+        cache.invalidar(usuario);
+
+        // A chave do email antigo não pode continuar apontando para o usuário
+        assertNull(usuarioService.buscarPorEmail("antigo@example.com"));
+        verify(repository, times(2)).findByEmail("antigo@example.com");
+    }
+
+    @Test
+    void updatePassword_DeveGravarSenhaRecriptografada() {
+        Usuario usuario = new Usuario("User", "user@example.com", "senhaAntiga", Role.USUARIO);
+        when(repository.findByEmail("user@example.com")).thenReturn(usuario);
+        when(repository.save(usuario)).thenReturn(usuario);
+
+        var atualizado = usuarioService.updatePassword(usuario, "senhaNova");
+
+        assertEquals("senhaNova", atualizado.getPassword());
+        verify(repository).save(usuario);
+    }
+
+    @Test
+    void salvarUsuario_DeveIndicarEmailJaCadastradoQuandoViolarEmailUnico() {
+        Usuario usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+        when(repository.save(usuario)).thenThrow(violacao("usuarios.uk_usuarios_email"));
+
+        assertThrows(EmailJaCadastradoException.class, () -> usuarioService.salvarUsuario(usuario));
+    }
+
+    @Test
+    void salvarUsuario_DevePropagarDemaisViolacoesDeRestricao() {
+        Usuario usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+        DataIntegrityViolationException violacao = violacao("chk_usuarios_role");
+        when(repository.save(usuario)).thenThrow(violacao);
+
+        assertSame(violacao, assertThrows(DataIntegrityViolationException.class, () -> usuarioService.salvarUsuario(usuario)));
+    }
+
+    private static DataIntegrityViolationException violacao(String restricao) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), restricao));
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.lifesync.infra.metricas;
+
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import br.com.lifesync.infra.security.TokenCache;
+import br.com.lifesync.infra.security.TokenService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasAspectTest {
+
+    private SimpleMeterRegistry registry;
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(
+                new TokenService("12345678", "chave-1", new TokenCache(100, DataSize.ofKilobytes(64))));
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new MetricasAspect(registry));
+        tokenService = fabrica.getProxy();
+    }
+
+    @Test
+    void medir_DeveRegistrarTempoDasChamadasComSucesso() {
+        String token = tokenService.gerarToken(new Usuario("User", "user@example.com", "senha", Role.USUARIO));
+        tokenService.getSubject(token);
+        tokenService.getSubject(token);
+
+        assertEquals(1, timer("gerarToken", "sucesso").count());
+        assertEquals(2, timer("getSubject", "sucesso").count());
+    }
+
+    @Test
+    void medir_DeveRegistrarErroComOTipoDaExcecao() {
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject("token-invalido"));
+
+        Timer timer = registry.find(MetricasAspect.METRICA)
+                .tags("servico", "TokenService", "operacao", "getSubject", "resultado", "erro")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNotEquals("nenhuma", timer.getId().getTag("excecao"));
+    }
+
+    private Timer timer(String operacao, String resultado) {
+        Timer timer = registry.find(MetricasAspect.METRICA)
+                .tags("servico", "TokenService", "operacao", operacao, "resultado", resultado)
+                .timer();
+        assertNotNull(timer, "Métrica não registrada para " + operacao);
+        return timer;
+    }
+}
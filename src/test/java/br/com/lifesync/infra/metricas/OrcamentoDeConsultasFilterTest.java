@@ -0,0 +1,132 @@
+package br.com.lifesync.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrcamentoDeConsultasFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    private OrcamentoDeConsultasFilter filter;
+
+    private ContadorDeConsultas contador;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new OrcamentoDeConsultasFilter(registry, 3, 2);
+        contador = new ContadorDeConsultas();
+        request = new MockHttpServletRequest("GET", "/tarefas/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tarefas/{id}");
+    }
+
+    @Test
+    void doFilter_DeveRegistrarComandosPorEndpoint() throws Exception {
+        executar(chain("select * from usuarios where email=?", "select * from tarefas where id=?"));
+
+        DistributionSummary consultas = registry.find(OrcamentoDeConsultasFilter.METRICA)
+                .tags("metodo", "GET", "uri", "/tarefas/{id}")
+                .summary();
+        assertNotNull(consultas);
+        assertEquals(1, consultas.count());
+        assertEquals(2, consultas.totalAmount());
+        assertNull(registry.find(OrcamentoDeConsultasFilter.METRICA_ALERTAS).counter());
+    }
+
+    @Test
+    void doFilter_DeveAlertarQuandoPassarDoOrcamento() throws Exception {
+        executar(chain("select a from x", "select b from x", "update x set a=?", "insert into x values (?)"));
+
+        assertEquals(1, alertas("orcamento").count());
+        assertNull(registry.find(OrcamentoDeConsultasFilter.METRICA_ALERTAS).tag("tipo", "repeticao").counter());
+    }
+
+    @Test
+    void doFilter_DeveAlertarConsultaRepetidaMesmoComListasDeTamanhosDiferentes() throws Exception {
+        executar(chain("select * from tarefas where id in (?, ?)", "select * from tarefas where id in (?,?,?)"));
+
+        assertEquals(1, alertas("repeticao").count());
+    }
+
+    @Test
+    void doFilter_NaoDeveConsiderarRepeticaoDeComandosDeEscrita() throws Exception {
+        executar(chain("insert into tarefas values (?, ?)", "insert into tarefas values (?, ?)"));
+
+        assertNull(registry.find(OrcamentoDeConsultasFilter.METRICA_ALERTAS).counter());
+    }
+
+    @Test
+    void inspect_NaoDeveContarForaDeUmaRequisicao() throws Exception {
+        executar(chain("select 1"));
+        contador.inspect("select 2");
+
+        assertEquals(1, registry.find(OrcamentoDeConsultasFilter.METRICA).summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_DeveAvaliarRequisicaoAssincronaApenasAoFinalDoDespacho() throws Exception {
+        ExecutorService outraThread = Executors.newSingleThreadExecutor();
+        try {
+            request.setAsyncSupported(true);
+            executar((req, res) -> {
+                contador.inspect("select * from usuarios where email=?");
+                req.startAsync();
+                // Etapa assíncrona, como a gravação do usuário no cadastro, executada em outra thread
+                CompletableFuture.runAsync(() -> contador.inspect("insert into usuarios values (?)"),
+                        ContadorDeConsultas.propagar(outraThread)).join();
+            });
+            assertNull(registry.find(OrcamentoDeConsultasFilter.METRICA).summary());
+
+            request.setAsyncStarted(false);
+            request.setDispatcherType(DispatcherType.ASYNC);
+            executar(chain("select * from tarefas where id=?"));
+        } finally {
+            outraThread.shutdown();
+        }
+
+        DistributionSummary consultas = registry.find(OrcamentoDeConsultasFilter.METRICA).summary();
+        assertEquals(1, consultas.count());
+        assertEquals(3, consultas.totalAmount());
+    }
+
+    @Test
+    void propagar_NaoDeveContarTarefasForaDeUmaRequisicao() {
+        CompletableFuture.runAsync(() -> contador.inspect("select 1"), ContadorDeConsultas.propagar(Runnable::run)).join();
+
+        assertNull(registry.find(OrcamentoDeConsultasFilter.METRICA).summary());
+    }
+
+    private void executar(FilterChain chain) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private FilterChain chain(String... comandos) {
+        return (req, res) -> {
+            for (String sql : comandos) {
+                assertEquals(sql, contador.inspect(sql));
+            }
+        };
+    }
+
+    private Counter alertas(String tipo) {
+        Counter alertas = registry.find(OrcamentoDeConsultasFilter.METRICA_ALERTAS).tag("tipo", tipo).counter();
+        assertNotNull(alertas);
+        return alertas;
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.lifesync.infra.security;
+
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import com.auth0.jwt.JWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChavesDeAssinaturaEndpointTest {
+
+    private TokenService tokenService;
+
+    private ChavesDeAssinaturaEndpoint endpoint;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService("12345678", "chave-1", new TokenCache(100, DataSize.ofKilobytes(64)));
+        endpoint = new ChavesDeAssinaturaEndpoint(tokenService);
+        usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+    }
+
+    @Test
+    void rotacionar_DeveAssinarNovosTokensComANovaChaveEAceitarOsAnteriores() {
+        String tokenAnterior = tokenService.gerarToken(usuario);
+
+        WebEndpointResponse<Map<String, Object>> resposta = endpoint.rotacionar("chave-2", "novo-segredo");
+
+        assertEquals(WebEndpointResponse.STATUS_OK, resposta.getStatus());
+        assertEquals(Map.of("atual", "chave-2", "aceitas", Set.of("chave-1", "chave-2")), resposta.getBody());
+        assertEquals("chave-2", JWT.decode(tokenService.gerarToken(usuario)).getKeyId());
+        assertEquals("user@example.com", tokenService.getSubject(tokenAnterior));
+    }
+
+    @Test
+    void remover_DeveRecusarTokensDaChaveRemovida() {
+        String tokenAnterior = tokenService.gerarToken(usuario);
+        endpoint.rotacionar("chave-2", "novo-segredo");
+
+        WebEndpointResponse<Map<String, Object>> resposta = endpoint.remover("chave-1");
+
+        assertEquals(WebEndpointResponse.STATUS_OK, resposta.getStatus());
+        assertEquals(Map.of("atual", "chave-2", "aceitas", Set.of("chave-2")), resposta.getBody());
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject(tokenAnterior));
+    }
+
+    @Test
+    void remover_NaoDeveRemoverAChaveAtualNemChaveDesconhecida() {
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.remover("chave-1").getStatus());
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.remover("chave-3").getStatus());
+        assertEquals(Set.of("chave-1"), tokenService.kidsAceitos());
+    }
+
+    @Test
+    void chaves_NaoDeveExporOsSegredos() {
+        endpoint.rotacionar("chave-2", "novo-segredo");
+
+        assertFalse(endpoint.chaves().toString().contains("segredo"));
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.lifesync.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashDeSenhasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private HashDeSenhas hashDeSenhas;
+
+    @AfterEach
+    void tearDown() {
+        hashDeSenhas.destroy();
+    }
+
+    @Test
+    void criptografar_DeveUsarOEncoderEMedirOTempo() {
+        PasswordEncoder encoder = new PasswordEncoderMedido(new BCryptPasswordEncoder(4), registry);
+        hashDeSenhas = new HashDeSenhas(encoder, 1, 1);
+
+        String senha = hashDeSenhas.criptografar("senha123").join();
+
+        assertTrue(encoder.matches("senha123", senha));
+        assertEquals(1, registry.find(PasswordEncoderMedido.METRICA).tag("operacao", "criptografar").timer().count());
+        assertEquals(1, registry.find(PasswordEncoderMedido.METRICA).tag("operacao", "comparar").timer().count());
+    }
+
+    @Test
+    void criptografar_DeveRecusarQuandoPoolEFilaEstiveremCheios() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        hashDeSenhas = new HashDeSenhas(new PasswordEncoderBloqueado(ocupado, liberar), 1, 1);
+
+        CompletableFuture<String> emExecucao = hashDeSenhas.criptografar("a");
+        ocupado.await();
+        CompletableFuture<String> naFila = hashDeSenhas.criptografar("b");
+
+        assertThrows(RejectedExecutionException.class, () -> hashDeSenhas.criptografar("c"));
+
+        liberar.countDown();
+        assertEquals("a", emExecucao.join());
+        assertEquals("b", naFila.join());
+    }
+
+    @Test
+    void upgradeEncoding_DeveIndicarSenhaComCustoMenorQueOConfigurado() {
+        PasswordEncoder encoder = new PasswordEncoderMedido(new BCryptPasswordEncoder(5), registry);
+        hashDeSenhas = new HashDeSenhas(encoder, 1, 1);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha123")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("senha123")));
+    }
+
+    //Encoder que fica bloqueado até ser liberado, para manter a thread do pool ocupada
+    private record PasswordEncoderBloqueado(CountDownLatch ocupado, CountDownLatch liberar) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            ocupado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.lifesync.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorDeTentativasTest {
+
+    private static final Duration JANELA = Duration.ofMinutes(1);
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private SimpleMeterRegistry registry;
+
+    private LimitadorDeTentativas limitador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limitador = new LimitadorDeTentativas(JANELA, 3, 5, 1000, registry, relogio::get);
+    }
+
+    @Test
+    void permitir_DeveRecusarTentativasAcimaDoLimitePorEmail() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limitador.permitir("user@example.com", "10.0.0.1"));
+        }
+
+        assertFalse(limitador.permitir("USER@example.com ", "10.0.0.1"));
+        assertTrue(limitador.permitir("outro@example.com", "10.0.0.1"));
+        assertEquals(1, recusados("email"));
+    }
+
+    @Test
+    void permitir_DeveRecusarTentativasAcimaDoLimitePorIp() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limitador.permitir("user" + i + "@example.com", "10.0.0.1"));
+        }
+
+        assertFalse(limitador.permitir("novo@example.com", "10.0.0.1"));
+        assertTrue(limitador.permitir("novo@example.com", "10.0.0.2"));
+        assertEquals(1, recusados("ip"));
+    }
+
+    @Test
+    void permitir_DeveLiberarTentativasConformeAJanelaDesliza() {
+        for (int i = 0; i < 3; i++) {
+            limitador.permitir("user@example.com", "10.0.0.1");
+        }
+
+        // Na metade da janela seguinte, metade das tentativas anteriores ainda conta: 1,5 + 1 < 3, mas 1,5 + 2 >= 3
+        relogio.addAndGet(JANELA.toNanos() + JANELA.toNanos() / 2);
+        assertTrue(limitador.permitir("user@example.com", "10.0.0.1"));
+        assertTrue(limitador.permitir("user@example.com", "10.0.0.1"));
+        assertFalse(limitador.permitir("user@example.com", "10.0.0.1"));
+
+        // Duas janelas depois, nada das anteriores conta
+        relogio.addAndGet(2 * JANELA.toNanos());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limitador.permitir("user@example.com", "10.0.0.1"));
+        }
+    }
+
+    @Test
+    void permitir_NaoDevePermitirMaisQueOLimiteComTentativasConcorrentes() throws Exception {
+        limitador = new LimitadorDeTentativas(JANELA, 100, 1_000_000, 1000, registry, relogio::get);
+        AtomicInteger permitidas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limitador.permitir("user@example.com", "10.0.0.1")) {
+                        permitidas.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(100, permitidas.get());
+    }
+
+    private double recusados(String motivo) {
+        return registry.find(LimitadorDeTentativas.METRICA).tag("motivo", motivo).counter().count();
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.lifesync.infra.security;
+
+import br.com.lifesync.domain.usuario.Role;
+import br.com.lifesync.domain.usuario.Usuario;
+import com.auth0.jwt.JWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private TokenService tokenService;
+
+    private TokenCache tokenCache;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new TokenCache(100, DataSize.ofKilobytes(64));
+        tokenService = new TokenService("12345678", "chave-1", tokenCache);
+        usuario = new Usuario("User", "user@example.com", "encodedPassword", Role.USUARIO);
+    }
+
+    @Test
+    void getSubject_DeveRetornarEmailDoTokenGerado() {
+        String token = tokenService.gerarToken(usuario);
+
+        assertEquals("user@example.com", tokenService.getSubject(token));
+        assertEquals("chave-1", JWT.decode(token).getKeyId());
+    }
+
+    @Test
+    void getSubject_DeveVerificarAssinaturaApenasNaPrimeiraChamada() {
+        String token = tokenService.gerarToken(usuario);
+
+        tokenService.getSubject(token);
+        tokenService.getSubject(token);
+        tokenService.getSubject(token);
+
+        assertEquals(1, tokenCache.getFalhas());
+        assertEquals(2, tokenCache.getAcertos());
+    }
+
+    @Test
+    void getSubject_NaoDeveArmazenarTokenInvalido() {
+        String token = new TokenService("outro-segredo", "chave-1", new TokenCache(0, DataSize.ofBytes(0))).gerarToken(usuario);
+
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject(token));
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject(token));
+        assertEquals(0, tokenCache.getAcertos());
+    }
+
+    @Test
+    void getSubject_DeveRejeitarTokenAssinadoComOutroSegredo() {
+        String token = new TokenService("outro-segredo", "chave-1", new TokenCache(0, DataSize.ofBytes(0))).gerarToken(usuario);
+
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject(token));
+    }
+
+    @Test
+    void rotacionarChave_DeveManterTokensAnterioresValidos() {
+        String tokenAntigo = tokenService.gerarToken(usuario);
+
+        tokenService.rotacionarChave("chave-2", "novo-segredo");
+        String tokenNovo = tokenService.gerarToken(usuario);
+
+        assertEquals("chave-2", JWT.decode(tokenNovo).getKeyId());
+        assertEquals("user@example.com", tokenService.getSubject(tokenNovo));
+        assertEquals("user@example.com", tokenService.getSubject(tokenAntigo));
+    }
+
+    @Test
+    void removerChave_DeveInvalidarTokensAssinadosComAChaveRemovida() {
+        String tokenAntigo = tokenService.gerarToken(usuario);
+        tokenService.getSubject(tokenAntigo);
+
+        tokenService.rotacionarChave("chave-2", "novo-segredo");
+        tokenService.removerChave("chave-1");
+
+        assertThrows(RuntimeException.class, () -> tokenService.getSubject(tokenAntigo));
+        assertThrows(IllegalArgumentException.class, () -> tokenService.removerChave("chave-2"));
+    }
+}